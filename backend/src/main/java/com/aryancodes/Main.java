@@ -7,18 +7,27 @@ import com.aryancodes.s3.S3Buckets;
 import com.aryancodes.s3.S3Service;
 import com.github.javafaker.Faker;
 import com.github.javafaker.Name;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.Random;
 import java.util.UUID;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class Main {
 
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
     public static void main(String[] args) {
         SpringApplication.run(Main.class, args);
     }
@@ -66,8 +75,14 @@ public class Main {
                 passwordEncoder.encode("password"),
                 age,
                 gender);
-        customerRepository.save(customer);
-        System.out.println(email);
+        try {
+            customerRepository.save(customer);
+        } catch (DataIntegrityViolationException e) {
+            // emails are unique and faker names repeat across restarts
+            log.info("skipped existing customer {}", email);
+            return;
+        }
+        log.info("created customer {}", email);
     }
 
 }
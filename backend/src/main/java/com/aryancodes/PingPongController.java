@@ -1,17 +0,0 @@
-package com.aryancodes;
-
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RestController;
-
-@RestController
-public class PingPongController {
-
-    private static int COUNTER = 0;
-
-    record PingPong(String result){}
-
-    @GetMapping("/ping")
-    public PingPong getPingPong() {
-        return new PingPong("Pong: %s".formatted(++COUNTER));
-    }
-}
@@ -0,0 +1,69 @@
+package com.aryancodes.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * The node-local customer caches and the only place that evicts from them.
+ * Entries are keyed by customer id ({@link #CUSTOMERS}) and by email
+ * ({@link #PRINCIPALS}); invalidation messages name one of those keys.
+ */
+@Component
+public class CustomerCaches {
+
+    public static final String CUSTOMERS = "customers";
+    public static final String PRINCIPALS = "principals";
+
+    static final String CUSTOMER_PREFIX = "id:";
+    static final String PRINCIPAL_PREFIX = "email:";
+
+    private final CacheManager cacheManager;
+
+    public CustomerCaches(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    static String customerMessage(Long id) {
+        return CUSTOMER_PREFIX + id;
+    }
+
+    static String principalMessage(String email) {
+        return PRINCIPAL_PREFIX + email;
+    }
+
+    /**
+     * Evicts the entry named by an invalidation message. Unknown messages
+     * flush everything, since we can't tell what they were meant to evict.
+     */
+    public void evict(String message) {
+        if (message.startsWith(CUSTOMER_PREFIX)) {
+            try {
+                evict(CUSTOMERS, Long.valueOf(message.substring(CUSTOMER_PREFIX.length())));
+                return;
+            } catch (NumberFormatException ignored) {
+                // fall through to a full flush
+            }
+        } else if (message.startsWith(PRINCIPAL_PREFIX)) {
+            evict(PRINCIPALS, message.substring(PRINCIPAL_PREFIX.length()));
+            return;
+        }
+        clear();
+    }
+
+    public void clear() {
+        for (String name : new String[]{CUSTOMERS, PRINCIPALS}) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void evict(String name, Object key) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+}
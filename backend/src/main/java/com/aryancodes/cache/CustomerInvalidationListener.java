@@ -0,0 +1,131 @@
+package com.aryancodes.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Keeps one dedicated connection to the primary in {@code LISTEN} on the
+ * invalidation channel and evicts whatever each notification names.
+ * Notifications sent while we were not listening are lost, so every
+ * (re)connect starts with a full flush of the local caches.
+ * <p>
+ * The connection is opened outside the pool on purpose: a pooled connection
+ * would be recycled out from under the {@code LISTEN}, and going through the
+ * read/write router could land it on a replica, which never sees a
+ * {@code NOTIFY}.
+ */
+@Component
+@ConditionalOnProperty(value = "customer-cache.invalidation.enabled", matchIfMissing = true)
+public class CustomerInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerInvalidationListener.class);
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CustomerCaches customerCaches;
+    private final int pollTimeoutMillis;
+    private final Duration keepAliveInterval;
+    private final Duration maxReconnectDelay;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public CustomerInvalidationListener(
+            DataSourceProperties dataSourceProperties,
+            CustomerCaches customerCaches,
+            @Value("${customer-cache.invalidation.poll-timeout:500ms}") Duration pollTimeout,
+            @Value("${customer-cache.invalidation.keep-alive-interval:30s}") Duration keepAliveInterval,
+            @Value("${customer-cache.invalidation.max-reconnect-delay:30s}") Duration maxReconnectDelay) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.customerCaches = customerCaches;
+        this.pollTimeoutMillis = (int) pollTimeout.toMillis();
+        this.keepAliveInterval = keepAliveInterval;
+        this.maxReconnectDelay = maxReconnectDelay;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        thread = new Thread(this::listen, "customer-cache-invalidation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        long reconnectDelay = 100;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CustomerInvalidationPublisher.CHANNEL);
+                }
+                customerCaches.clear();
+                reconnectDelay = 100;
+                log.info("listening for customer cache invalidations");
+                receive(connection);
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // anything published while we're away is gone, the flush on reconnect covers it
+                customerCaches.clear();
+                log.warn("customer cache invalidation listener disconnected, reconnecting in {}ms: {}",
+                        reconnectDelay, e.getMessage());
+                try {
+                    Thread.sleep(reconnectDelay);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                reconnectDelay = Math.min(reconnectDelay * 2, maxReconnectDelay.toMillis());
+            }
+        }
+    }
+
+    private void receive(Connection connection) throws SQLException {
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        long lastActivity = System.nanoTime();
+        while (running) {
+            PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+            if (notifications != null && notifications.length > 0) {
+                for (PGNotification notification : notifications) {
+                    customerCaches.evict(notification.getParameter());
+                }
+                lastActivity = System.nanoTime();
+            } else if (System.nanoTime() - lastActivity > keepAliveInterval.toNanos()) {
+                // a half-open socket never errors on its own, a round trip does
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+                lastActivity = System.nanoTime();
+            }
+        }
+    }
+}
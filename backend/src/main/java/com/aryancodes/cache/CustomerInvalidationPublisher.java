@@ -0,0 +1,102 @@
+package com.aryancodes.cache;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sends a {@code NOTIFY} for the id and every email touched by a customer
+ * write. Notifications issued inside a transaction are only delivered by
+ * Postgres if it commits, so a rolled-back write never evicts anything and a
+ * committed one is never missed by a connected listener. This node's own
+ * caches are evicted straight after commit rather than waiting for the
+ * round trip.
+ */
+@Component
+public class CustomerInvalidationPublisher {
+
+    static final String CHANNEL = "customer_invalidation";
+
+    private static final String NOTIFY_SQL =
+            "SELECT pg_notify('" + CHANNEL + "', m) FROM unnest(?::text[]) AS m";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerCaches customerCaches;
+
+    public CustomerInvalidationPublisher(JdbcTemplate jdbcTemplate,
+                                         CustomerCaches customerCaches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.customerCaches = customerCaches;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        Set<String> messages = messages(event);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            notify(messages);
+            messages.forEach(customerCaches::evict);
+            return;
+        }
+        pendingMessages().addAll(messages);
+    }
+
+    static Set<String> messages(CustomerChangedEvent event) {
+        Set<String> messages = new LinkedHashSet<>();
+        messages.add(CustomerCaches.customerMessage(event.customerId()));
+        addPrincipal(messages, event.previous());
+        addPrincipal(messages, event.current());
+        return messages;
+    }
+
+    private static void addPrincipal(Set<String> messages, Customer customer) {
+        if (customer != null && customer.getEmail() != null) {
+            messages.add(CustomerCaches.principalMessage(customer.getEmail()));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<String> pendingMessages() {
+        Set<String> messages = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (messages == null) {
+            Set<String> pending = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    CustomerInvalidationPublisher.this.notify(pending);
+                }
+
+                @Override
+                public void afterCommit() {
+                    pending.forEach(customerCaches::evict);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CustomerInvalidationPublisher.this);
+                }
+            });
+            messages = pending;
+        }
+        return messages;
+    }
+
+    private void notify(Set<String> messages) {
+        jdbcTemplate.query(
+                con -> {
+                    var statement = con.prepareStatement(NOTIFY_SQL);
+                    statement.setArray(1, con.createArrayOf("text", messages.toArray()));
+                    return statement;
+                },
+                rs -> {
+                }
+        );
+    }
+}
@@ -1,6 +1,7 @@
 package com.aryancodes.customer;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -11,11 +12,12 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
+@DynamicUpdate
 @Table(
         name = "customer",
         uniqueConstraints = {
                 @UniqueConstraint(
-                        name = "customer_email_unique",
+                        name = Customer.EMAIL_CONSTRAINT,
                         columnNames = "email"
                 ),
                 @UniqueConstraint(
@@ -26,11 +28,15 @@ import java.util.Objects;
 )
 public class Customer implements UserDetails {
 
+    // created by V7
+    static final String EMAIL_CONSTRAINT = "customer_email_unique";
+
     @Id
     @SequenceGenerator(
             name = "customer_id_seq",
             sequenceName = "customer_id_seq",
-            allocationSize = 1
+            // must match the sequence's INCREMENT BY (V5)
+            allocationSize = 50
     )
     @GeneratedValue(
             strategy = GenerationType.SEQUENCE,
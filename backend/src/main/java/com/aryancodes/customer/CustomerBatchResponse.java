@@ -0,0 +1,13 @@
+package com.aryancodes.customer;
+
+import java.util.List;
+
+/**
+ * {@code customers} in the order the ids were requested; ids with no
+ * customer are listed in {@code missing}, also in request order.
+ */
+public record CustomerBatchResponse(
+        List<CustomerDTO> customers,
+        List<Long> missing
+) {
+}
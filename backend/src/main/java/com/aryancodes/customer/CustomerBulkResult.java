@@ -0,0 +1,13 @@
+package com.aryancodes.customer;
+
+public record CustomerBulkResult(
+        Long id,
+        Status status
+) {
+
+    public enum Status {
+        DELETED,
+        UPDATED,
+        NOT_FOUND
+    }
+}
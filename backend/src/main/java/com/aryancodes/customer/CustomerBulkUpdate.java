@@ -0,0 +1,12 @@
+package com.aryancodes.customer;
+
+/**
+ * One row of a bulk update; null fields are left unchanged. Email is not
+ * bulk-updatable since every change needs its own uniqueness check.
+ */
+public record CustomerBulkUpdate(
+        Long id,
+        String name,
+        Integer age
+) {
+}
@@ -0,0 +1,8 @@
+package com.aryancodes.customer;
+
+import java.util.List;
+
+public record CustomerBulkUpdateRequest(
+        List<CustomerBulkUpdate> updates
+) {
+}
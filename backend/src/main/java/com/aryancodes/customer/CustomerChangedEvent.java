@@ -0,0 +1,33 @@
+package com.aryancodes.customer;
+
+/**
+ * Published by the database-backed {@link CustomerDao}s after a customer row
+ * is inserted, updated or deleted. {@code previous} is the row as it was
+ * before the write (null for inserts) and {@code current} as it is after
+ * (null for deletes).
+ */
+public record CustomerChangedEvent(
+        Type type,
+        Long customerId,
+        Customer previous,
+        Customer current
+) {
+
+    public enum Type {
+        INSERTED,
+        UPDATED,
+        DELETED
+    }
+
+    public static CustomerChangedEvent inserted(Customer customer) {
+        return new CustomerChangedEvent(Type.INSERTED, customer.getId(), null, customer);
+    }
+
+    public static CustomerChangedEvent updated(Customer previous, Customer current) {
+        return new CustomerChangedEvent(Type.UPDATED, current.getId(), previous, current);
+    }
+
+    public static CustomerChangedEvent deleted(Customer previous) {
+        return new CustomerChangedEvent(Type.DELETED, previous.getId(), previous, null);
+    }
+}
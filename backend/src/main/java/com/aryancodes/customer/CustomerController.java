@@ -1,5 +1,7 @@
 package com.aryancodes.customer;
 
+import com.aryancodes.json.CustomerFieldsFilter;
+import com.aryancodes.json.JacksonFormat;
 import com.aryancodes.jwt.JWTUtil;
 import com.aryancodes.customer.CustomerDTO;
 import com.aryancodes.customer.CustomerRegistrationRequest;
@@ -8,7 +10,9 @@ import com.aryancodes.customer.CustomerUpdateRequest;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -28,14 +32,44 @@ public class CustomerController {
     }
 
     @GetMapping
-    public List<CustomerDTO> getCustomers() {
-        return customerService.getAllCustomers();
+    public MappingJacksonValue getCustomers(
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
+        CustomerFields customerFields = CustomerFields.parse(fields);
+        String version = customerService.getAllCustomersETag();
+        if (request.checkNotModified("W/" + etag(version, customerFields, request))) {
+            return null;
+        }
+        return CustomerFieldsFilter.apply(customerService.getAllCustomers(customerFields), customerFields);
+    }
+
+    @GetMapping(params = "ids")
+    public MappingJacksonValue getCustomersByIds(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam(value = "fields", required = false) String fields) {
+        CustomerFields customerFields = CustomerFields.parse(fields);
+        return CustomerFieldsFilter.apply(customerService.getCustomersByIds(ids, customerFields), customerFields);
+    }
+
+    @GetMapping("search")
+    public CustomerSearchResponse searchCustomers(CustomerSearchRequest request) {
+        return customerService.searchCustomers(request);
     }
 
     @GetMapping("{customerId}")
-    public CustomerDTO getCustomer(
-            @PathVariable("customerId") Long customerId) {
-        return customerService.getCustomer(customerId);
+    public MappingJacksonValue getCustomer(
+            @PathVariable("customerId") Long customerId,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request) {
+        CustomerFields customerFields = CustomerFields.parse(fields);
+        // a missing customer falls through to the usual 404
+        boolean notModified = customerService.getCustomerETag(customerId)
+                .map(version -> request.checkNotModified(etag(version, customerFields, request)))
+                .orElse(false);
+        if (notModified) {
+            return null;
+        }
+        return CustomerFieldsFilter.apply(customerService.getCustomer(customerId, customerFields), customerFields);
     }
 
     @PostMapping
@@ -54,6 +88,18 @@ public class CustomerController {
         customerService.deleteCustomerById(customerId);
     }
 
+    @PostMapping("bulk-delete")
+    public List<CustomerBulkResult> deleteCustomers(
+            @RequestBody CustomerBulkDeleteRequest request) {
+        return customerService.deleteCustomers(request);
+    }
+
+    @PutMapping("bulk")
+    public List<CustomerBulkResult> updateCustomers(
+            @RequestBody CustomerBulkUpdateRequest request) {
+        return customerService.updateCustomers(request);
+    }
+
     @PutMapping("{customerId}")
     public void updateCustomer(
             @PathVariable("customerId") Long customerId,
@@ -80,4 +126,10 @@ public class CustomerController {
         return customerService.getCustomerProfileImage(customerId);
     }
 
+    // tags must differ per representation: JSON, CBOR and Smile bodies differ, and so do fieldsets
+    private static String etag(String version, CustomerFields fields, WebRequest request) {
+        JacksonFormat format = JacksonFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        return "\"" + version + "-" + fields.key() + "-" + format.name().toLowerCase() + "\"";
+    }
+
 }
@@ -0,0 +1,8 @@
+package com.aryancodes.customer;
+
+public record CustomerCount(
+        Gender gender,
+        Integer age,
+        Long count
+) {
+}
@@ -15,4 +15,15 @@ public record CustomerDTO(
         String profileImageId
 ) {
 
+    // every customer has the same single role, so projections share one list
+    static final List<String> USER_ROLES = List.of("ROLE_USER");
+
+    public CustomerDTO(Long id,
+                       String name,
+                       String email,
+                       Gender gender,
+                       Integer age,
+                       String profileImageId) {
+        this(id, name, email, gender, age, USER_ROLES, email, profileImageId);
+    }
 }
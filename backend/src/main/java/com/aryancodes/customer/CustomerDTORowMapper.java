@@ -0,0 +1,50 @@
+package com.aryancodes.customer;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Component
+public class CustomerDTORowMapper implements RowMapper<CustomerDTO> {
+    @Override
+    public CustomerDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new CustomerDTO(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getString("email"),
+                Gender.valueOf(rs.getString("gender")),
+                rs.getInt("age"),
+                rs.getString("profile_image_id"));
+    }
+
+    /**
+     * Maps rows selected with {@link CustomerFields#columns()}, reading only
+     * the columns that select list contains.
+     */
+    public RowMapper<CustomerDTO> forFields(CustomerFields fields) {
+        if (fields.isAll()) {
+            return this;
+        }
+        boolean name = fields.contains(CustomerField.NAME);
+        boolean email = fields.contains(CustomerField.EMAIL);
+        boolean gender = fields.contains(CustomerField.GENDER);
+        boolean age = fields.contains(CustomerField.AGE);
+        boolean roles = fields.contains(CustomerField.ROLES);
+        boolean username = fields.contains(CustomerField.USERNAME);
+        boolean profileImageId = fields.contains(CustomerField.PROFILE_IMAGE_ID);
+        return (rs, rowNum) -> {
+            String emailColumn = email || username ? rs.getString("email") : null;
+            return new CustomerDTO(
+                    rs.getLong("id"),
+                    name ? rs.getString("name") : null,
+                    email ? emailColumn : null,
+                    gender ? Gender.valueOf(rs.getString("gender")) : null,
+                    age ? rs.getInt("age") : null,
+                    roles ? CustomerDTO.USER_ROLES : null,
+                    username ? emailColumn : null,
+                    profileImageId ? rs.getString("profile_image_id") : null);
+        };
+    }
+}
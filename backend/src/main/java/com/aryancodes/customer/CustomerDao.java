@@ -2,6 +2,7 @@ package com.aryancodes.customer;
 
 import com.aryancodes.customer.Customer;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -10,17 +11,73 @@ public interface CustomerDao {
 
     Optional<Customer> selectCustomerById(Long customerId);
 
+    /**
+     * Same rows as {@link #selectAllCustomers()}, reading only the columns
+     * the API returns. Implementations may narrow the read further to
+     * {@code fields}; properties outside it can come back null.
+     */
+    List<CustomerDTO> selectAllCustomerDTOs(CustomerFields fields);
+
+    Optional<CustomerDTO> selectCustomerDTOById(Long customerId, CustomerFields fields);
+
+    /**
+     * One round trip for all ids; rows come back in no particular order and
+     * ids without a customer are simply absent.
+     */
+    List<CustomerDTO> selectCustomersByIds(Collection<Long> customerIds, CustomerFields fields);
+
+    /**
+     * @return the row's version, bumped on every update, or empty if it does not exist
+     */
+    Optional<Long> selectCustomerVersion(Long customerId);
+
+    CustomersVersion selectCustomersVersion();
+
+    /**
+     * Inserts the customer and sets its generated id.
+     *
+     * @throws org.springframework.dao.DuplicateKeyException if the email is taken
+     */
     void insertCustomer(Customer customer);
+
+    /**
+     * Inserts all customers as one batch and sets their generated ids.
+     */
+    void insertCustomers(List<Customer> customers);
     
     boolean existsCustomerWithEmail(String email);
     
     boolean existsCustomerById(Long customerId);
     
-    void deleteCustomerById(Long customerId);
+    /**
+     * @return false if there was no customer with that id
+     */
+    boolean deleteCustomerById(Long customerId);
+
+    /**
+     * @return the ids that existed and were deleted
+     */
+    List<Long> deleteCustomersByIds(List<Long> customerIds);
+
+    /**
+     * Sets the non-null name, email and age of {@code update} in one statement,
+     * leaving the other columns as they are.
+     *
+     * @return the customer as it was before the update, or empty if there is no such customer
+     * @throws org.springframework.dao.DuplicateKeyException if the new email is taken
+     */
+    Optional<Customer> updateCustomer(Customer update);
 
-    void updateCustomer(Customer update);
+    /**
+     * @return the ids that existed and were updated
+     */
+    List<Long> updateCustomers(List<CustomerBulkUpdate> updates);
     
     Optional<Customer> selectUserByEmail(String email);
     
     void updateCustomerProfileImageId(String profileImageId, Long customerId);
+
+    List<Customer> searchCustomers(CustomerSearchCriteria criteria);
+
+    List<CustomerCount> countCustomersByGenderAndAge();
 }
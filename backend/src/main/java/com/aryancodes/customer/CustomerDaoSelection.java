@@ -0,0 +1,56 @@
+package com.aryancodes.customer;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Lets each consumer of {@link CustomerDao} pick its implementation by bean
+ * name under {@code customer.dao.*}. Consumers qualify on a fixed alias, which
+ * is pointed at the configured bean before any bean is created.
+ */
+@Component
+public class CustomerDaoSelection implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    public static final String CUSTOMER_SERVICE = "customerServiceDao";
+    public static final String USER_DETAILS = "userDetailsDao";
+    public static final String STATISTICS = "statisticsDao";
+
+    private static final Map<String, Selection> SELECTIONS = Map.of(
+            CUSTOMER_SERVICE, new Selection("customer.dao.customer-service", "jdbc"),
+            USER_DETAILS, new Selection("customer.dao.user-details", "jpa"),
+            STATISTICS, new Selection("customer.dao.statistics", "jdbc")
+    );
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) {
+        SELECTIONS.forEach((alias, selection) -> {
+            String beanName = environment.getProperty(selection.property(), selection.defaultBean());
+            if (!registry.containsBeanDefinition(beanName)) {
+                throw new IllegalStateException(
+                        "%s is [%s] but there is no CustomerDao with that name"
+                                .formatted(selection.property(), beanName));
+            }
+            registry.registerAlias(beanName, alias);
+        });
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+    }
+
+    private record Selection(String property, String defaultBean) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.aryancodes.customer;
+
+/**
+ * A {@link CustomerDTO} property that can be requested with {@code ?fields=},
+ * and the customer column it is read from ({@code null} when it needs none).
+ */
+public enum CustomerField {
+    ID("id", "id"),
+    NAME("name", "name"),
+    EMAIL("email", "email"),
+    GENDER("gender", "gender"),
+    AGE("age", "age"),
+    ROLES("roles", null),
+    USERNAME("username", "email"),
+    PROFILE_IMAGE_ID("profileImageId", "profile_image_id");
+
+    private final String property;
+    private final String column;
+
+    CustomerField(String property, String column) {
+        this.property = property;
+        this.column = column;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    String column() {
+        return column;
+    }
+}
@@ -0,0 +1,101 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.exception.RequestValidationException;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The {@link CustomerField}s a caller asked for. Only their columns are
+ * selected and only they are serialized; the rest of the {@link CustomerDTO}
+ * is left null.
+ */
+public final class CustomerFields {
+
+    public static final CustomerFields ALL = new CustomerFields(EnumSet.allOf(CustomerField.class));
+
+    private final Set<CustomerField> fields;
+    private final String columns;
+
+    private CustomerFields(EnumSet<CustomerField> fields) {
+        this.fields = Collections.unmodifiableSet(fields);
+        // id is always read so batch results can be put back in request order
+        Set<String> columns = new LinkedHashSet<>();
+        columns.add(CustomerField.ID.column());
+        for (CustomerField field : fields) {
+            if (field.column() != null) {
+                columns.add(field.column());
+            }
+        }
+        this.columns = String.join(", ", columns);
+    }
+
+    /**
+     * @param fields comma separated {@link CustomerDTO} property names, or
+     *               null/blank for all of them
+     */
+    public static CustomerFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        EnumSet<CustomerField> requested = EnumSet.noneOf(CustomerField.class);
+        for (String name : fields.split(",")) {
+            requested.add(field(name.trim()));
+        }
+        return requested.size() == CustomerField.values().length ? ALL : new CustomerFields(requested);
+    }
+
+    public static CustomerFields of(CustomerField first, CustomerField... rest) {
+        EnumSet<CustomerField> fields = EnumSet.of(first, rest);
+        return fields.size() == CustomerField.values().length ? ALL : new CustomerFields(fields);
+    }
+
+    private static CustomerField field(String name) {
+        for (CustomerField field : CustomerField.values()) {
+            if (field.property().equals(name)) {
+                return field;
+            }
+        }
+        throw new RequestValidationException("unknown customer field [%s]".formatted(name));
+    }
+
+    public boolean isAll() {
+        return this == ALL;
+    }
+
+    public boolean contains(CustomerField field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Short stable key for these fields, for use in entity tags.
+     */
+    public String key() {
+        int mask = 0;
+        for (CustomerField field : fields) {
+            mask |= 1 << field.ordinal();
+        }
+        return Integer.toHexString(mask);
+    }
+
+    String columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof CustomerFields other && fields.equals(other.fields);
+    }
+
+    @Override
+    public int hashCode() {
+        return fields.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return fields.toString();
+    }
+}
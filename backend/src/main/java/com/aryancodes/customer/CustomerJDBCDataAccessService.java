@@ -3,23 +3,45 @@ package com.aryancodes.customer;
 import com.aryancodes.customer.Customer;
 import com.aryancodes.customer.CustomerDao;
 import com.aryancodes.customer.CustomerRowMapper;
+import com.aryancodes.metrics.SqlStatementStatistics;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Repository;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 @Repository("jdbc")
 public class CustomerJDBCDataAccessService implements CustomerDao {
 
     private final JdbcTemplate jdbcTemplate;
     private final CustomerRowMapper customerRowMapper;
+    private final CustomerDTORowMapper customerDTORowMapper;
+    private final SqlStatementStatistics sqlStatistics;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CustomerJDBCDataAccessService(JdbcTemplate jdbcTemplate,
-                                         CustomerRowMapper customerRowMapper) {
+                                         CustomerRowMapper customerRowMapper,
+                                         CustomerDTORowMapper customerDTORowMapper,
+                                         SqlStatementStatistics sqlStatistics,
+                                         ApplicationEventPublisher eventPublisher) {
         this.jdbcTemplate = jdbcTemplate;
         this.customerRowMapper = customerRowMapper;
+        this.customerDTORowMapper = customerDTORowMapper;
+        this.sqlStatistics = sqlStatistics;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -30,7 +52,7 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
                 LIMIT 1000
                 """;
 
-        return jdbcTemplate.query(sql, customerRowMapper);
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerRowMapper));
     }
 
     @Override
@@ -40,27 +62,132 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
                 FROM customer
                 WHERE id = ?
                 """;
-        return jdbcTemplate.query(sql, customerRowMapper, id)
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerRowMapper, id))
                 .stream()
                 .findFirst();
     }
 
+    @Override
+    public List<CustomerDTO> selectAllCustomerDTOs(CustomerFields fields) {
+        var sql = """
+                SELECT %s
+                FROM customer
+                LIMIT 1000
+                """.formatted(fields.columns());
+
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerDTORowMapper.forFields(fields)));
+    }
+
+    @Override
+    public Optional<CustomerDTO> selectCustomerDTOById(Long id, CustomerFields fields) {
+        var sql = """
+                SELECT %s
+                FROM customer
+                WHERE id = ?
+                """.formatted(fields.columns());
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerDTORowMapper.forFields(fields), id))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<CustomerDTO> selectCustomersByIds(Collection<Long> ids, CustomerFields fields) {
+        var sql = """
+                SELECT %s
+                FROM customer
+                WHERE id = ANY(?)
+                """.formatted(fields.columns());
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(
+                sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                customerDTORowMapper.forFields(fields)
+        ));
+    }
+
+    @Override
+    public Optional<Long> selectCustomerVersion(Long id) {
+        var sql = """
+                SELECT version
+                FROM customer
+                WHERE id = ?
+                """;
+        return sqlStatistics.query(sql, () -> jdbcTemplate.queryForList(sql, Long.class, id))
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public CustomersVersion selectCustomersVersion() {
+        var sql = """
+                SELECT count(*), coalesce(max(version), 0)
+                FROM customer
+                """;
+        return sqlStatistics.queryForObject(sql, () -> jdbcTemplate.queryForObject(
+                sql,
+                (rs, rowNum) -> new CustomersVersion(rs.getLong(1), rs.getLong(2))
+        ));
+    }
+
     @Override
     public void insertCustomer(Customer customer) {
         var sql = """
                 INSERT INTO customer(name, email, password, age, gender)
                 VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (email) DO NOTHING
+                RETURNING id
                 """;
-        int result = jdbcTemplate.update(
+        List<Long> ids = sqlStatistics.query(sql, () -> jdbcTemplate.queryForList(
                 sql,
+                Long.class,
                 customer.getName(),
                 customer.getEmail(),
                 customer.getPassword(),
                 customer.getAge(),
                 customer.getGender().name()
-        );
+        ));
+        if (ids.isEmpty()) {
+            throw new DuplicateKeyException(
+                    "customer with email [%s] already exists".formatted(customer.getEmail()));
+        }
+        customer.setId(ids.get(0));
+        eventPublisher.publishEvent(CustomerChangedEvent.inserted(customer));
+    }
+
+    @Override
+    public void insertCustomers(List<Customer> customers) {
+        if (customers.isEmpty()) {
+            return;
+        }
+        var sql = """
+                INSERT INTO customer(name, email, password, age, gender)
+                VALUES (?, ?, ?, ?, ?)
+                """;
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        sqlStatistics.update(sql, () -> IntStream.of(jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Customer customer = customers.get(i);
+                        ps.setString(1, customer.getName());
+                        ps.setString(2, customer.getEmail());
+                        ps.setString(3, customer.getPassword());
+                        ps.setInt(4, customer.getAge());
+                        ps.setString(5, customer.getGender().name());
+                    }
 
-        System.out.println("insertCustomer result " + result);
+                    @Override
+                    public int getBatchSize() {
+                        return customers.size();
+                    }
+                },
+                keyHolder
+        )).sum());
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < customers.size(); i++) {
+            customers.get(i).setId(((Number) keys.get(i).get("id")).longValue());
+        }
+        customers.forEach(inserted -> eventPublisher.publishEvent(CustomerChangedEvent.inserted(inserted)));
     }
 
     @Override
@@ -70,7 +197,8 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
                 FROM customer
                 WHERE email = ?
                 """;
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, email);
+        Integer count = sqlStatistics.queryForObject(
+                sql, () -> jdbcTemplate.queryForObject(sql, Integer.class, email));
         return count != null && count > 0;
     }
 
@@ -81,49 +209,119 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
                 FROM customer
                 WHERE id = ?
                 """;
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, id);
+        Integer count = sqlStatistics.queryForObject(
+                sql, () -> jdbcTemplate.queryForObject(sql, Integer.class, id));
         return count != null && count > 0;
     }
 
     @Override
-    public void deleteCustomerById(Long customerId) {
+    public boolean deleteCustomerById(Long customerId) {
         var sql = """
                 DELETE
                 FROM customer
                 WHERE id = ?
+                RETURNING id, name, email, password, age, gender, profile_image_id
+                """;
+        List<Customer> deleted = sqlStatistics.query(
+                sql, () -> jdbcTemplate.query(sql, customerRowMapper, customerId));
+        deleted.forEach(customer -> eventPublisher.publishEvent(CustomerChangedEvent.deleted(customer)));
+        return !deleted.isEmpty();
+    }
+
+    @Override
+    public List<Long> deleteCustomersByIds(List<Long> customerIds) {
+        var sql = """
+                DELETE
+                FROM customer
+                WHERE id = ANY(?)
+                RETURNING id, name, email, password, age, gender, profile_image_id
                 """;
-        int result = jdbcTemplate.update(sql, customerId);
-        System.out.println("deleteCustomerById result = " + result);
+        List<Customer> deleted = sqlStatistics.query(sql, () -> jdbcTemplate.query(
+                sql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", customerIds.toArray())),
+                customerRowMapper
+        ));
+        deleted.forEach(customer -> eventPublisher.publishEvent(CustomerChangedEvent.deleted(customer)));
+        return deleted.stream().map(Customer::getId).toList();
     }
 
     @Override
-    public void updateCustomer(Customer update) {
-        if (update.getName() != null) {
-            String sql = "UPDATE customer SET name = ? WHERE id = ?";
-            int result = jdbcTemplate.update(
-                    sql,
-                    update.getName(),
-                    update.getId()
+    public Optional<Customer> updateCustomer(Customer update) {
+        // self-join so RETURNING sees the row as it was before the update
+        var sql = """
+                UPDATE customer c
+                SET name = COALESCE(?, c.name),
+                    age = COALESCE(?, c.age),
+                    email = COALESCE(?, c.email)
+                FROM customer old
+                WHERE c.id = old.id
+                AND c.id = ?
+                RETURNING old.id, old.name, old.email, old.password, old.age, old.gender, old.profile_image_id
+                """;
+        List<Customer> previous = sqlStatistics.query(sql, () -> jdbcTemplate.query(
+                sql,
+                customerRowMapper,
+                update.getName(),
+                update.getAge(),
+                update.getEmail(),
+                update.getId()
+        ));
+        for (Customer before : previous) {
+            Customer after = new Customer(
+                    before.getId(),
+                    update.getName() != null ? update.getName() : before.getName(),
+                    update.getEmail() != null ? update.getEmail() : before.getEmail(),
+                    before.getPassword(),
+                    update.getAge() != null ? update.getAge() : before.getAge(),
+                    before.getGender(),
+                    before.getProfileImageId()
             );
-            System.out.println("update customer name result = " + result);
+            eventPublisher.publishEvent(CustomerChangedEvent.updated(before, after));
         }
-        if (update.getAge() != null) {
-            String sql = "UPDATE customer SET age = ? WHERE id = ?";
-            int result = jdbcTemplate.update(
-                    sql,
-                    update.getAge(),
-                    update.getId()
+        return previous.stream().findFirst();
+    }
+
+    @Override
+    public List<Long> updateCustomers(List<CustomerBulkUpdate> updates) {
+        var sql = """
+                UPDATE customer c
+                SET name = COALESCE(u.name, c.name),
+                    age = COALESCE(u.age, c.age)
+                FROM unnest(?::bigint[], ?::text[], ?::int[]) AS u(id, name, age),
+                     customer old
+                WHERE c.id = u.id
+                AND old.id = c.id
+                RETURNING old.id, old.name, old.email, old.password, old.age, old.gender, old.profile_image_id
+                """;
+        Object[] ids = updates.stream().map(CustomerBulkUpdate::id).toArray();
+        Object[] names = updates.stream().map(CustomerBulkUpdate::name).toArray();
+        Object[] ages = updates.stream().map(CustomerBulkUpdate::age).toArray();
+        List<Customer> previous = sqlStatistics.query(sql, () -> jdbcTemplate.query(
+                sql,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids));
+                    ps.setArray(2, ps.getConnection().createArrayOf("text", names));
+                    ps.setArray(3, ps.getConnection().createArrayOf("int4", ages));
+                },
+                customerRowMapper
+        ));
+
+        Map<Long, CustomerBulkUpdate> updatesById = new HashMap<>();
+        updates.forEach(update -> updatesById.put(update.id(), update));
+        for (Customer before : previous) {
+            CustomerBulkUpdate update = updatesById.get(before.getId());
+            Customer after = new Customer(
+                    before.getId(),
+                    update.name() != null ? update.name() : before.getName(),
+                    before.getEmail(),
+                    before.getPassword(),
+                    update.age() != null ? update.age() : before.getAge(),
+                    before.getGender(),
+                    before.getProfileImageId()
             );
-            System.out.println("update customer age result = " + result);
-        }
-        if (update.getEmail() != null) {
-            String sql = "UPDATE customer SET email = ? WHERE id = ?";
-            int result = jdbcTemplate.update(
-                    sql,
-                    update.getEmail(),
-                    update.getId());
-            System.out.println("update customer email result = " + result);
+            eventPublisher.publishEvent(CustomerChangedEvent.updated(before, after));
         }
+        return previous.stream().map(Customer::getId).toList();
     }
 
     @Override
@@ -133,7 +331,7 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
                 FROM customer
                 WHERE email = ?
                 """;
-        return jdbcTemplate.query(sql, customerRowMapper, email)
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerRowMapper, email))
                 .stream()
                 .findFirst();
     }
@@ -142,10 +340,119 @@ public class CustomerJDBCDataAccessService implements CustomerDao {
     public void updateCustomerProfileImageId(String profileImageId,
                                              Long customerId) {
         var sql = """
-                UPDATE customer
+                UPDATE customer c
                 SET profile_image_id = ?
-                WHERE id = ?
+                FROM customer old
+                WHERE c.id = old.id
+                AND c.id = ?
+                RETURNING old.id, old.name, old.email, old.password, old.age, old.gender, old.profile_image_id
                 """;
-        jdbcTemplate.update(sql, profileImageId, customerId);
+        sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, customerRowMapper, profileImageId, customerId))
+                .forEach(before -> eventPublisher.publishEvent(CustomerChangedEvent.updated(
+                        before,
+                        new Customer(
+                                before.getId(),
+                                before.getName(),
+                                before.getEmail(),
+                                before.getPassword(),
+                                before.getAge(),
+                                before.getGender(),
+                                profileImageId
+                        )
+                )));
+    }
+
+    @Override
+    public List<Customer> searchCustomers(CustomerSearchCriteria criteria) {
+        SearchQuery query = searchQuery(criteria);
+        return sqlStatistics.query(query.sql(), () -> jdbcTemplate.query(
+                query.sql(),
+                customerRowMapper,
+                query.args().toArray()
+        ));
+    }
+
+    @Override
+    public List<CustomerCount> countCustomersByGenderAndAge() {
+        var sql = """
+                SELECT gender, age, count(*) AS customers
+                FROM customer
+                GROUP BY gender, age
+                """;
+        return sqlStatistics.query(sql, () -> jdbcTemplate.query(sql, (rs, rowNum) -> new CustomerCount(
+                Gender.valueOf(rs.getString("gender")),
+                rs.getInt("age"),
+                rs.getLong("customers")
+        )));
+    }
+
+    record SearchQuery(String sql, List<Object> args) {
+    }
+
+    /**
+     * Builds the search so every filter and the keyset condition can be
+     * answered from an index: lower(name) text_pattern_ops for prefixes,
+     * the lower(name) trigram index for substrings, (name, id) and (age, id) for
+     * ordering and paging.
+     */
+    static SearchQuery searchQuery(CustomerSearchCriteria criteria) {
+        StringBuilder sql = new StringBuilder("""
+                SELECT id, name, email, password, age, gender, profile_image_id
+                FROM customer
+                WHERE true
+                """);
+        List<Object> args = new ArrayList<>();
+
+        if (criteria.name() != null) {
+            sql.append("AND lower(name) LIKE ?\n");
+            args.add(criteria.namePattern());
+        }
+        if (criteria.minAge() != null) {
+            sql.append("AND age >= ?\n");
+            args.add(criteria.minAge());
+        }
+        if (criteria.maxAge() != null) {
+            sql.append("AND age <= ?\n");
+            args.add(criteria.maxAge());
+        }
+        if (criteria.gender() != null) {
+            sql.append("AND gender = ?\n");
+            args.add(criteria.gender().name());
+        }
+
+        String comparison = criteria.descending() ? "<" : ">";
+        String direction = criteria.descending() ? "DESC" : "ASC";
+        CustomerSearchCursor after = criteria.after();
+        switch (criteria.sort()) {
+            case ID -> {
+                if (after != null) {
+                    sql.append("AND id ").append(comparison).append(" ?\n");
+                    args.add(after.id());
+                }
+                sql.append("ORDER BY id ").append(direction).append("\n");
+            }
+            case NAME -> {
+                if (after != null) {
+                    sql.append("AND (name, id) ").append(comparison).append(" (?, ?)\n");
+                    args.add(after.value());
+                    args.add(after.id());
+                }
+                sql.append("ORDER BY name ").append(direction)
+                        .append(", id ").append(direction).append("\n");
+            }
+            case AGE -> {
+                if (after != null) {
+                    sql.append("AND (age, id) ").append(comparison).append(" (?, ?)\n");
+                    args.add(after.ageValue());
+                    args.add(after.id());
+                }
+                sql.append("ORDER BY age ").append(direction)
+                        .append(", id ").append(direction).append("\n");
+            }
+        }
+        sql.append("LIMIT ?\n");
+        args.add(criteria.limit());
+
+        return new SearchQuery(sql.toString(), args);
     }
 }
@@ -3,20 +3,36 @@ package com.aryancodes.customer;
 import com.aryancodes.customer.Customer;
 import com.aryancodes.customer.CustomerRepository;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository("jpa")
 public class CustomerJPADataAccessService implements CustomerDao {
 
     private final CustomerRepository customerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public CustomerJPADataAccessService(CustomerRepository customerRepository) {
+    public CustomerJPADataAccessService(CustomerRepository customerRepository,
+                                        ApplicationEventPublisher eventPublisher) {
         this.customerRepository = customerRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -30,9 +46,44 @@ public class CustomerJPADataAccessService implements CustomerDao {
         return customerRepository.findById(id);
     }
 
+    @Override
+    public List<CustomerDTO> selectAllCustomerDTOs(CustomerFields fields) {
+        return customerRepository.findAllCustomerDTOs(Pageable.ofSize(1000));
+    }
+
+    @Override
+    public Optional<CustomerDTO> selectCustomerDTOById(Long id, CustomerFields fields) {
+        return customerRepository.findCustomerDTOById(id);
+    }
+
+    @Override
+    public List<CustomerDTO> selectCustomersByIds(Collection<Long> ids, CustomerFields fields) {
+        return customerRepository.findCustomerDTOsByIds(ids);
+    }
+
+    @Override
+    public Optional<Long> selectCustomerVersion(Long id) {
+        return customerRepository.findCustomerVersion(id);
+    }
+
+    @Override
+    public CustomersVersion selectCustomersVersion() {
+        CustomerRepository.Versions versions = customerRepository.findCustomersVersion();
+        return new CustomersVersion(versions.getCount(), versions.getMaxVersion());
+    }
+
     @Override
     public void insertCustomer(Customer customer) {
-        customerRepository.save(customer);
+        // flushed here rather than at commit so a taken email surfaces from this call
+        saveAndFlush(customer);
+        eventPublisher.publishEvent(CustomerChangedEvent.inserted(customer));
+    }
+
+    @Override
+    public void insertCustomers(List<Customer> customers) {
+        // ids come from the pooled sequence and the inserts go out as JDBC batches on flush
+        customerRepository.saveAll(customers);
+        customers.forEach(inserted -> eventPublisher.publishEvent(CustomerChangedEvent.inserted(inserted)));
     }
 
     @Override
@@ -46,13 +97,110 @@ public class CustomerJPADataAccessService implements CustomerDao {
     }
 
     @Override
-    public void deleteCustomerById(Long customerId) {
-        customerRepository.deleteById(customerId);
+    public boolean deleteCustomerById(Long customerId) {
+        Optional<Customer> customer = customerRepository.findById(customerId);
+        customer.ifPresent(deleted -> {
+            customerRepository.delete(deleted);
+            eventPublisher.publishEvent(CustomerChangedEvent.deleted(deleted));
+        });
+        return customer.isPresent();
     }
 
     @Override
-    public void updateCustomer(Customer update) {
-        customerRepository.save(update);
+    public List<Long> deleteCustomersByIds(List<Long> customerIds) {
+        List<Customer> customers = customerRepository.findAllById(customerIds);
+        customerRepository.deleteAllInBatch(customers);
+        customers.forEach(deleted -> eventPublisher.publishEvent(CustomerChangedEvent.deleted(deleted)));
+        return customers.stream().map(Customer::getId).toList();
+    }
+
+    @Override
+    public Optional<Customer> updateCustomer(Customer update) {
+        // one UPDATE returning the previous row for CustomerChangedEvent, instead of
+        // loading the customer and merging the detached update onto it
+        List<CustomerRepository.CustomerRow> previous;
+        try {
+            previous = customerRepository.updateCustomerReturningPrevious(
+                    update.getId(), update.getName(), update.getEmail(), update.getAge());
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, update);
+        }
+        Customer before = null;
+        for (CustomerRepository.CustomerRow row : previous) {
+            before = new Customer(
+                    row.getId(),
+                    row.getName(),
+                    row.getEmail(),
+                    row.getPassword(),
+                    row.getAge(),
+                    Gender.valueOf(row.getGender()),
+                    row.getProfileImageId()
+            );
+            Customer after = detachedCopy(before);
+            if (update.getName() != null) {
+                after.setName(update.getName());
+            }
+            if (update.getEmail() != null) {
+                after.setEmail(update.getEmail());
+            }
+            if (update.getAge() != null) {
+                after.setAge(update.getAge());
+            }
+            eventPublisher.publishEvent(CustomerChangedEvent.updated(before, after));
+        }
+        return Optional.ofNullable(before);
+    }
+
+    @Override
+    public List<Long> updateCustomers(List<CustomerBulkUpdate> updates) {
+        Map<Long, CustomerBulkUpdate> updatesById = new HashMap<>();
+        updates.forEach(update -> updatesById.put(update.id(), update));
+
+        List<Customer> customers = customerRepository.findAllById(updatesById.keySet());
+        List<CustomerChangedEvent> events = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            Customer previous = detachedCopy(customer);
+            CustomerBulkUpdate update = updatesById.get(customer.getId());
+            if (update.name() != null) {
+                customer.setName(update.name());
+            }
+            if (update.age() != null) {
+                customer.setAge(update.age());
+            }
+            events.add(CustomerChangedEvent.updated(previous, customer));
+        }
+        customerRepository.saveAll(customers);
+        events.forEach(eventPublisher::publishEvent);
+        return customers.stream().map(Customer::getId).toList();
+    }
+
+    private void saveAndFlush(Customer customer) {
+        try {
+            customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw translate(e, customer);
+        }
+    }
+
+    private static RuntimeException translate(DataIntegrityViolationException e, Customer customer) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && Customer.EMAIL_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+            return new DuplicateKeyException(
+                    "customer with email [%s] already exists".formatted(customer.getEmail()), e);
+        }
+        return e;
+    }
+
+    private static Customer detachedCopy(Customer customer) {
+        return new Customer(
+                customer.getId(),
+                customer.getName(),
+                customer.getEmail(),
+                customer.getPassword(),
+                customer.getAge(),
+                customer.getGender(),
+                customer.getProfileImageId()
+        );
     }
 
     @Override
@@ -62,6 +210,78 @@ public class CustomerJPADataAccessService implements CustomerDao {
 
     @Override
     public void updateCustomerProfileImageId(String profileImageId, Long customerId) {
+        Optional<Customer> previous = customerRepository.findById(customerId)
+                .map(CustomerJPADataAccessService::detachedCopy);
         customerRepository.updateProfileImageId(profileImageId, customerId);
+        previous.ifPresent(before -> {
+            Customer after = detachedCopy(before);
+            after.setProfileImageId(profileImageId);
+            eventPublisher.publishEvent(CustomerChangedEvent.updated(before, after));
+        });
+    }
+
+    @Override
+    public List<Customer> searchCustomers(CustomerSearchCriteria criteria) {
+        Sort.Direction direction = criteria.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = switch (criteria.sort()) {
+            case ID -> Sort.by(direction, "id");
+            case NAME -> Sort.by(direction, "name", "id");
+            case AGE -> Sort.by(direction, "age", "id");
+        };
+        return customerRepository.findBy(
+                searchSpecification(criteria),
+                query -> query.sortBy(sort).limit(criteria.limit()).all()
+        );
+    }
+
+    private static Specification<Customer> searchSpecification(CustomerSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.name() != null) {
+                predicates.add(cb.like(cb.lower(root.get("name")), criteria.namePattern(), '\\'));
+            }
+            if (criteria.minAge() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("age"), criteria.minAge()));
+            }
+            if (criteria.maxAge() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("age"), criteria.maxAge()));
+            }
+            if (criteria.gender() != null) {
+                predicates.add(cb.equal(root.get("gender"), criteria.gender()));
+            }
+            CustomerSearchCursor after = criteria.after();
+            if (after != null) {
+                predicates.add(switch (criteria.sort()) {
+                    case ID -> after(cb, criteria, root.get("id"), after.id());
+                    case NAME -> keyset(cb, criteria, root.get("name"), after.value(), root.get("id"), after.id());
+                    case AGE -> keyset(cb, criteria, root.get("age"), after.ageValue(), root.get("id"), after.id());
+                });
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    @Override
+    public List<CustomerCount> countCustomersByGenderAndAge() {
+        return customerRepository.countCustomersByGenderAndAge();
+    }
+
+    private static <T extends Comparable<? super T>> Predicate after(CriteriaBuilder cb,
+                                                                     CustomerSearchCriteria criteria,
+                                                                     Expression<T> path,
+                                                                     T value) {
+        return criteria.descending() ? cb.lessThan(path, value) : cb.greaterThan(path, value);
+    }
+
+    private static <T extends Comparable<? super T>> Predicate keyset(CriteriaBuilder cb,
+                                                                      CustomerSearchCriteria criteria,
+                                                                      Expression<T> sortPath,
+                                                                      T sortValue,
+                                                                      Expression<Long> idPath,
+                                                                      Long id) {
+        return cb.or(
+                after(cb, criteria, sortPath, sortValue),
+                cb.and(cb.equal(sortPath, sortValue), after(cb, criteria, idPath, id))
+        );
     }
 }
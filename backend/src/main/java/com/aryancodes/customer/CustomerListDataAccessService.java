@@ -2,21 +2,30 @@ package com.aryancodes.customer;
 
 import com.aryancodes.customer.Customer;
 
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Repository;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Repository("list")
 public class CustomerListDataAccessService implements CustomerDao {
 
-    // db
+    // db, thread safe so it can back any consumer selected in customer.dao.*
     private static final List<Customer> customers;
+    private static final AtomicLong ids = new AtomicLong(2);
 
     static {
-        customers = new ArrayList<>();
+        customers = new CopyOnWriteArrayList<>();
 
         Customer alex = new Customer(
                 1L,
@@ -50,10 +59,62 @@ public class CustomerListDataAccessService implements CustomerDao {
     }
 
     @Override
-    public void insertCustomer(Customer customer) {
+    public List<CustomerDTO> selectAllCustomerDTOs(CustomerFields fields) {
+        return customers.stream()
+                .map(CustomerListDataAccessService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<CustomerDTO> selectCustomerDTOById(Long id, CustomerFields fields) {
+        return selectCustomerById(id).map(CustomerListDataAccessService::toDTO);
+    }
+
+    private static CustomerDTO toDTO(Customer customer) {
+        return new CustomerDTO(
+                customer.getId(),
+                customer.getName(),
+                customer.getEmail(),
+                customer.getGender(),
+                customer.getAge(),
+                customer.getProfileImageId());
+    }
+
+    @Override
+    public List<CustomerDTO> selectCustomersByIds(Collection<Long> ids, CustomerFields fields) {
+        Map<Long, Customer> byId = new HashMap<>();
+        customers.forEach(customer -> byId.put(customer.getId(), customer));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(CustomerListDataAccessService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    // no version column in memory, the row's hash stands in for it
+    @Override
+    public Optional<Long> selectCustomerVersion(Long id) {
+        return selectCustomerById(id).map(customer -> (long) customer.hashCode());
+    }
+
+    @Override
+    public CustomersVersion selectCustomersVersion() {
+        return new CustomersVersion(customers.size(), customers.hashCode());
+    }
+
+    @Override
+    public synchronized void insertCustomer(Customer customer) {
+        checkEmailAvailable(customer.getEmail(), null);
+        customer.setId(ids.incrementAndGet());
         customers.add(customer);
     }
 
+    @Override
+    public void insertCustomers(List<Customer> customers) {
+        customers.forEach(customer -> customer.setId(ids.incrementAndGet()));
+        CustomerListDataAccessService.customers.addAll(customers);
+    }
+
     @Override
     public boolean existsCustomerWithEmail(String email) {
         return customers.stream()
@@ -67,16 +128,56 @@ public class CustomerListDataAccessService implements CustomerDao {
     }
 
     @Override
-    public void deleteCustomerById(Long customerId) {
-        customers.stream()
-                .filter(c -> c.getId().equals(customerId))
-                .findFirst()
-                .ifPresent(customers::remove);
+    public boolean deleteCustomerById(Long customerId) {
+        return customers.removeIf(c -> c.getId().equals(customerId));
     }
 
     @Override
-    public void updateCustomer(Customer customer) {
-        customers.add(customer);
+    public List<Long> deleteCustomersByIds(List<Long> customerIds) {
+        List<Long> deleted = customers.stream()
+                .map(Customer::getId)
+                .filter(customerIds::contains)
+                .collect(Collectors.toList());
+        customers.removeIf(c -> deleted.contains(c.getId()));
+        return deleted;
+    }
+
+    @Override
+    public synchronized Optional<Customer> updateCustomer(Customer update) {
+        Optional<Customer> current = selectCustomerById(update.getId());
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        Customer before = current.get();
+        Customer after = new Customer(
+                before.getId(),
+                update.getName() != null ? update.getName() : before.getName(),
+                update.getEmail() != null ? update.getEmail() : before.getEmail(),
+                before.getPassword(),
+                update.getAge() != null ? update.getAge() : before.getAge(),
+                before.getGender(),
+                before.getProfileImageId());
+        checkEmailAvailable(after.getEmail(), after.getId());
+        // the stored customer is replaced rather than changed, so before stays as it was
+        customers.replaceAll(c -> c.getId().equals(after.getId()) ? after : c);
+        return Optional.of(before);
+    }
+
+    @Override
+    public List<Long> updateCustomers(List<CustomerBulkUpdate> updates) {
+        List<Long> updated = new ArrayList<>();
+        for (CustomerBulkUpdate update : updates) {
+            selectCustomerById(update.id()).ifPresent(customer -> {
+                if (update.name() != null) {
+                    customer.setName(update.name());
+                }
+                if (update.age() != null) {
+                    customer.setAge(update.age());
+                }
+                updated.add(customer.getId());
+            });
+        }
+        return updated;
     }
 
     @Override
@@ -93,4 +194,62 @@ public class CustomerListDataAccessService implements CustomerDao {
                 .findFirst()
                 .ifPresent(customer -> customer.setProfileImageId(profileImageId));
     }
+
+    @Override
+    public List<Customer> searchCustomers(CustomerSearchCriteria criteria) {
+        Comparator<Customer> ascending = switch (criteria.sort()) {
+            case ID -> Comparator.comparing(Customer::getId);
+            case NAME -> Comparator.comparing(Customer::getName).thenComparing(Customer::getId);
+            case AGE -> Comparator.comparing(Customer::getAge).thenComparing(Customer::getId);
+        };
+        Comparator<Customer> order = criteria.descending() ? ascending.reversed() : ascending;
+        Customer after = criteria.after() == null ? null : cursorCustomer(criteria.after());
+        String name = criteria.name() == null ? null : criteria.name().toLowerCase();
+
+        return customers.stream()
+                .filter(c -> name == null || (criteria.match() == CustomerNameMatch.CONTAINS
+                        ? c.getName().toLowerCase().contains(name)
+                        : c.getName().toLowerCase().startsWith(name)))
+                .filter(c -> criteria.minAge() == null || c.getAge() >= criteria.minAge())
+                .filter(c -> criteria.maxAge() == null || c.getAge() <= criteria.maxAge())
+                .filter(c -> criteria.gender() == null || c.getGender() == criteria.gender())
+                .filter(c -> after == null || order.compare(c, after) > 0)
+                .sorted(order)
+                .limit(criteria.limit())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<CustomerCount> countCustomersByGenderAndAge() {
+        List<CustomerCount> counts = new ArrayList<>();
+        customers.stream()
+                .collect(Collectors.groupingBy(
+                        Customer::getGender,
+                        Collectors.groupingBy(Customer::getAge, Collectors.counting())))
+                .forEach((gender, byAge) -> byAge.forEach((age, count) ->
+                        counts.add(new CustomerCount(gender, age, count))));
+        return counts;
+    }
+
+    private static Customer cursorCustomer(CustomerSearchCursor cursor) {
+        Customer customer = new Customer();
+        customer.setId(cursor.id());
+        switch (cursor.sort()) {
+            case NAME -> customer.setName(cursor.value());
+            case AGE -> customer.setAge(cursor.ageValue());
+            default -> {
+            }
+        }
+        return customer;
+    }
+
+    // stands in for the unique email constraint; callers hold the lock
+    private static void checkEmailAvailable(String email, Long customerId) {
+        boolean taken = customers.stream()
+                .anyMatch(c -> c.getEmail().equals(email) && !c.getId().equals(customerId));
+        if (taken) {
+            throw new DuplicateKeyException(
+                    "customer with email [%s] already exists".formatted(email));
+        }
+    }
 }
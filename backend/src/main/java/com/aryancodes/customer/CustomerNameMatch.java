@@ -0,0 +1,6 @@
+package com.aryancodes.customer;
+
+public enum CustomerNameMatch {
+    PREFIX,
+    CONTAINS
+}
@@ -1,17 +1,21 @@
 package com.aryancodes.customer;
 
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.aryancodes.customer.Customer;
 
 @Transactional
 public interface CustomerRepository
-        extends JpaRepository<Customer, Long> {
+        extends JpaRepository<Customer, Long>, JpaSpecificationExecutor<Customer> {
 
     boolean existsCustomerByEmail(String email);
     boolean existsCustomerById(Long id);
@@ -19,4 +23,50 @@ public interface CustomerRepository
     @Modifying(clearAutomatically = true)
     @Query("UPDATE Customer c SET c.profileImageId = ?1 WHERE c.id = ?2")
     int updateProfileImageId(String profileImageId, Long customerId);
+    @Query("SELECT new com.aryancodes.customer.CustomerDTO(c.id, c.name, c.email, c.gender, c.age, c.profileImageId) "
+            + "FROM Customer c")
+    List<CustomerDTO> findAllCustomerDTOs(Pageable pageable);
+    @Query("SELECT new com.aryancodes.customer.CustomerDTO(c.id, c.name, c.email, c.gender, c.age, c.profileImageId) "
+            + "FROM Customer c WHERE c.id = ?1")
+    Optional<CustomerDTO> findCustomerDTOById(Long id);
+    @Query("SELECT new com.aryancodes.customer.CustomerDTO(c.id, c.name, c.email, c.gender, c.age, c.profileImageId) "
+            + "FROM Customer c WHERE c.id IN ?1")
+    List<CustomerDTO> findCustomerDTOsByIds(Collection<Long> ids);
+    // version is maintained by a trigger and deliberately not mapped on Customer
+    @Query(value = "SELECT version FROM customer WHERE id = ?1", nativeQuery = true)
+    Optional<Long> findCustomerVersion(Long id);
+    @Query(value = "SELECT count(*) AS count, coalesce(max(version), 0) AS maxVersion FROM customer",
+            nativeQuery = true)
+    Versions findCustomersVersion();
+    // self-join so RETURNING sees the row as it was before the update
+    @Query(value = """
+            UPDATE customer c
+            SET name = COALESCE(:name, c.name),
+                age = COALESCE(:age, c.age),
+                email = COALESCE(:email, c.email)
+            FROM customer old
+            WHERE c.id = old.id
+            AND c.id = :id
+            RETURNING old.id, old.name, old.email, old.password, old.age, old.gender,
+                      old.profile_image_id AS "profileImageId"
+            """, nativeQuery = true)
+    List<CustomerRow> updateCustomerReturningPrevious(Long id, String name, String email, Integer age);
+    @Query("SELECT new com.aryancodes.customer.CustomerCount(c.gender, c.age, count(c)) "
+            + "FROM Customer c GROUP BY c.gender, c.age")
+    List<CustomerCount> countCustomersByGenderAndAge();
+
+    interface CustomerRow {
+        Long getId();
+        String getName();
+        String getEmail();
+        String getPassword();
+        Integer getAge();
+        String getGender();
+        String getProfileImageId();
+    }
+
+    interface Versions {
+        long getCount();
+        long getMaxVersion();
+    }
 }
@@ -0,0 +1,39 @@
+package com.aryancodes.customer;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Validated search passed to {@link CustomerDao#searchCustomers}. Results are
+ * ordered by {@code sort} then id, and start strictly after {@code after}
+ * when it is set.
+ */
+public record CustomerSearchCriteria(
+        String name,
+        CustomerNameMatch match,
+        Integer minAge,
+        Integer maxAge,
+        Gender gender,
+        CustomerSortField sort,
+        Sort.Direction direction,
+        CustomerSearchCursor after,
+        int limit
+) {
+
+    public boolean descending() {
+        return direction == Sort.Direction.DESC;
+    }
+
+    /**
+     * {@code name} as a case-insensitive LIKE pattern to match against
+     * {@code lower(name)}, which both the prefix and trigram indexes cover.
+     */
+    public String namePattern() {
+        String escaped = name.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return match == CustomerNameMatch.CONTAINS
+                ? "%" + escaped + "%"
+                : escaped + "%";
+    }
+}
@@ -0,0 +1,50 @@
+package com.aryancodes.customer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position of the last customer on a page: the sort column's value
+ * and the id that breaks ties. Sent to clients as an opaque token.
+ */
+public record CustomerSearchCursor(
+        CustomerSortField sort,
+        String value,
+        Long id
+) {
+
+    public static CustomerSearchCursor of(CustomerSortField sort, Customer customer) {
+        String value = switch (sort) {
+            case ID -> "";
+            case NAME -> customer.getName();
+            case AGE -> customer.getAge().toString();
+        };
+        return new CustomerSearchCursor(sort, value, customer.getId());
+    }
+
+    public static CustomerSearchCursor decode(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(":", 3);
+            CustomerSortField sort = CustomerSortField.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[1]);
+            if (sort == CustomerSortField.AGE) {
+                Integer.parseInt(parts[2]);
+            }
+            return new CustomerSearchCursor(sort, parts[2], id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("invalid cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = sort.name() + ":" + id + ":" + value;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Integer ageValue() {
+        return Integer.valueOf(value);
+    }
+}
@@ -0,0 +1,16 @@
+package com.aryancodes.customer;
+
+import org.springframework.data.domain.Sort;
+
+public record CustomerSearchRequest(
+        String name,
+        CustomerNameMatch match,
+        Integer minAge,
+        Integer maxAge,
+        Gender gender,
+        CustomerSortField sort,
+        Sort.Direction direction,
+        Integer limit,
+        String cursor
+) {
+}
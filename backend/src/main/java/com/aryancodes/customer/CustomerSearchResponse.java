@@ -0,0 +1,9 @@
+package com.aryancodes.customer;
+
+import java.util.List;
+
+public record CustomerSearchResponse(
+        List<CustomerDTO> customers,
+        String nextCursor
+) {
+}
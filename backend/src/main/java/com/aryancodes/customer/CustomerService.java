@@ -1,7 +1,9 @@
 package com.aryancodes.customer;
 
+import com.aryancodes.cache.CustomerCaches;
 import com.aryancodes.customer.CustomerDao;
 import com.aryancodes.customer.CustomerDTOMapper;
+import com.aryancodes.datasource.ReadYourWritesTracker;
 import com.aryancodes.exception.DuplicateResourceException;
 import com.aryancodes.exception.RequestValidationException;
 import com.aryancodes.exception.ResourceNotFoundException;
@@ -9,61 +11,123 @@ import com.aryancodes.s3.S3Buckets;
 import com.aryancodes.s3.S3Service;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class CustomerService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 50;
+    private static final int MAX_SEARCH_LIMIT = 200;
+    // shorter substrings have no trigram to use the index with
+    private static final int MIN_CONTAINS_SEARCH_LENGTH = 3;
+    private static final int MAX_BULK_SIZE = 1000;
+
     private final CustomerDao customerDao;
     private final CustomerDTOMapper customerDTOMapper;
     private final PasswordEncoder passwordEncoder;
     private final S3Service s3Service;
     private final S3Buckets s3Buckets;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    // writes only: keeps the DAO statement and its outbox rows in one transaction
+    // without holding a connection through password hashing or S3 calls
+    private final TransactionTemplate writeTransaction;
 
-    public CustomerService(@Qualifier("jdbc") CustomerDao customerDao,
+    public CustomerService(@Qualifier(CustomerDaoSelection.CUSTOMER_SERVICE) CustomerDao customerDao,
                            CustomerDTOMapper customerDTOMapper,
                            PasswordEncoder passwordEncoder,
                            S3Service s3Service,
-                           S3Buckets s3Buckets) {
+                           S3Buckets s3Buckets,
+                           ReadYourWritesTracker readYourWritesTracker,
+                           PlatformTransactionManager transactionManager) {
         this.customerDao = customerDao;
         this.customerDTOMapper = customerDTOMapper;
         this.passwordEncoder = passwordEncoder;
         this.s3Service = s3Service;
         this.s3Buckets = s3Buckets;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
     }
 
-    public List<CustomerDTO> getAllCustomers() {
-        return customerDao.selectAllCustomers()
-                .stream()
-                .map(customerDTOMapper)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public List<CustomerDTO> getAllCustomers(CustomerFields fields) {
+        return customerDao.selectAllCustomerDTOs(fields);
     }
 
-    public CustomerDTO getCustomer(Long id) {
-        return customerDao.selectCustomerById(id)
-                .map(customerDTOMapper)
+    // only full representations are cached, the cache is keyed and evicted by id alone
+    @Cacheable(cacheNames = CustomerCaches.CUSTOMERS, key = "#id", condition = "#fields.isAll()")
+    @Transactional(readOnly = true)
+    public CustomerDTO getCustomer(Long id, CustomerFields fields) {
+        // what gets cached is read from the primary, a lagging replica's row would stay cached
+        Optional<CustomerDTO> customer = fields.isAll()
+                ? readYourWritesTracker.onPrimary(() -> customerDao.selectCustomerDTOById(id, fields))
+                : customerDao.selectCustomerDTOById(id, fields);
+        return customer
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "customer with id [%s] not found".formatted(id)
                 ));
     }
 
-    public void addCustomer(CustomerRegistrationRequest customerRegistrationRequest) {
-        // check if email exists
-        String email = customerRegistrationRequest.email();
-        if (customerDao.existsCustomerWithEmail(email)) {
-            throw new DuplicateResourceException(
-                    "email already taken"
-            );
+    @Transactional(readOnly = true)
+    public CustomerBatchResponse getCustomersByIds(List<Long> ids, CustomerFields fields) {
+        validateBulkIds(ids);
+
+        Map<Long, CustomerDTO> found = new HashMap<>();
+        customerDao.selectCustomersByIds(ids, fields).forEach(customer -> found.put(customer.id(), customer));
+        List<CustomerDTO> customers = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            CustomerDTO customer = found.get(id);
+            if (customer == null) {
+                missing.add(id);
+            } else {
+                customers.add(customer);
+            }
         }
+        return new CustomerBatchResponse(customers, missing);
+    }
+
+    /**
+     * Entity tag for {@link #getAllCustomers(CustomerFields)}, from a count and max(version)
+     * probe instead of the rows themselves. Only good as a weak validator: versions come from
+     * a sequence before commit, so a write that commits after a later one can land under a
+     * max that was already handed out. Nothing is locked to read or to bump it.
+     */
+    @Transactional(readOnly = true)
+    public String getAllCustomersETag() {
+        CustomersVersion version = customerDao.selectCustomersVersion();
+        return version.count() + "-" + version.maxVersion();
+    }
+
+    /**
+     * @return the entity tag for {@link #getCustomer(Long, CustomerFields)}, or empty if there is no such customer
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getCustomerETag(Long id) {
+        return customerDao.selectCustomerVersion(id).map(version -> id + "-" + version);
+    }
 
-        // add
+    public void addCustomer(CustomerRegistrationRequest customerRegistrationRequest) {
+        String email = customerRegistrationRequest.email();
         Customer customer = new Customer(
                 customerRegistrationRequest.name(),
                 customerRegistrationRequest.email(),
@@ -72,57 +136,124 @@ public class CustomerService {
                 customerRegistrationRequest.gender()
         );
 
-        customerDao.insertCustomer(customer);
+        // the unique email constraint decides, two concurrent registrations can't both pass a check
+        try {
+            writeTransaction.executeWithoutResult(status -> customerDao.insertCustomer(customer));
+        } catch (DuplicateKeyException e) {
+            throw emailTaken();
+        }
+        readYourWritesTracker.markWrite(email);
     }
 
     public void deleteCustomerById(Long customerId) {
-        checkIfCustomerExistsOrThrow(customerId);
-        customerDao.deleteCustomerById(customerId);
-    }
-
-    private void checkIfCustomerExistsOrThrow(Long customerId) {
-        if (!customerDao.existsCustomerById(customerId)) {
+        Boolean deleted = writeTransaction.execute(status -> customerDao.deleteCustomerById(customerId));
+        if (!Boolean.TRUE.equals(deleted)) {
             throw new ResourceNotFoundException(
                     "customer with id [%s] not found".formatted(customerId)
             );
         }
+        readYourWritesTracker.markCurrentSubjectWrite();
     }
 
-    public void updateCustomer(Long customerId,
-                              CustomerUpdateRequest updateRequest) {
-        // TODO: for JPA use .getReferenceById(customerId) as it does does not bring object into memory and instead a reference
-        Customer customer = customerDao.selectCustomerById(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "customer with id [%s] not found".formatted(customerId)
-                ));
+    public List<CustomerBulkResult> deleteCustomers(CustomerBulkDeleteRequest request) {
+        List<Long> ids = request.ids() == null ? List.of() : request.ids();
+        validateBulkIds(ids);
 
-        boolean changes = false;
+        Set<Long> deleted = new HashSet<>(writeTransaction.execute(status ->
+                customerDao.deleteCustomersByIds(ids)));
+        readYourWritesTracker.markCurrentSubjectWrite();
+        return bulkResults(ids, deleted, CustomerBulkResult.Status.DELETED);
+    }
 
-        if (updateRequest.name() != null && !updateRequest.name().equals(customer.getName())) {
-            customer.setName(updateRequest.name());
-            changes = true;
+    public List<CustomerBulkResult> updateCustomers(CustomerBulkUpdateRequest request) {
+        List<CustomerBulkUpdate> updates = request.updates() == null ? List.of() : request.updates();
+        List<Long> ids = updates.stream().map(CustomerBulkUpdate::id).toList();
+        validateBulkIds(ids);
+        for (CustomerBulkUpdate update : updates) {
+            if (update.name() == null && update.age() == null) {
+                throw new RequestValidationException(
+                        "no data changes found for customer with id [%s]".formatted(update.id()));
+            }
         }
 
-        if (updateRequest.age() != null && !updateRequest.age().equals(customer.getAge())) {
-            customer.setAge(updateRequest.age());
-            changes = true;
+        Set<Long> updated = new HashSet<>(writeTransaction.execute(status ->
+                customerDao.updateCustomers(updates)));
+        readYourWritesTracker.markCurrentSubjectWrite();
+        return bulkResults(ids, updated, CustomerBulkResult.Status.UPDATED);
+    }
+
+    private static void validateBulkIds(List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > MAX_BULK_SIZE) {
+            throw new RequestValidationException(
+                    "bulk requests must contain between 1 and %s customers".formatted(MAX_BULK_SIZE));
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new RequestValidationException("customer id must not be null");
+        }
+        if (new HashSet<>(ids).size() != ids.size()) {
+            throw new RequestValidationException("customer ids must be unique");
         }
+    }
 
-        if (updateRequest.email() != null && !updateRequest.email().equals(customer.getEmail())) {
-            if (customerDao.existsCustomerWithEmail(updateRequest.email())) {
-                throw new DuplicateResourceException(
-                        "email already taken"
-                );
-            }
-            customer.setEmail(updateRequest.email());
-            changes = true;
+    private static List<CustomerBulkResult> bulkResults(List<Long> ids,
+                                                        Set<Long> affected,
+                                                        CustomerBulkResult.Status status) {
+        return ids.stream()
+                .map(id -> new CustomerBulkResult(
+                        id,
+                        affected.contains(id) ? status : CustomerBulkResult.Status.NOT_FOUND))
+                .collect(Collectors.toList());
+    }
+
+    private void checkIfCustomerExistsOrThrow(Long customerId) {
+        if (!customerDao.existsCustomerById(customerId)) {
+            throw new ResourceNotFoundException(
+                    "customer with id [%s] not found".formatted(customerId)
+            );
         }
+    }
 
-        if (!changes) {
+    public void updateCustomer(Long customerId,
+                              CustomerUpdateRequest updateRequest) {
+        // only the requested fields: the UPDATE keeps the current value of the rest, so
+        // concurrent updates of different fields don't overwrite each other
+        Customer update = new Customer();
+        update.setId(customerId);
+        update.setName(updateRequest.name());
+        update.setAge(updateRequest.age());
+        update.setEmail(updateRequest.email());
+        if (update.getName() == null && update.getAge() == null && update.getEmail() == null) {
             throw new RequestValidationException("no data changes found");
         }
 
-        customerDao.updateCustomer(customer);
+        Customer previous;
+        try {
+            previous = writeTransaction.execute(status -> {
+                Customer before = customerDao.updateCustomer(update)
+                        .orElseThrow(() -> new ResourceNotFoundException(
+                                "customer with id [%s] not found".formatted(customerId)
+                        ));
+                // thrown inside the transaction so an update that changes nothing is rolled back
+                if (!changes(before, update)) {
+                    throw new RequestValidationException("no data changes found");
+                }
+                return before;
+            });
+        } catch (DuplicateKeyException e) {
+            throw emailTaken();
+        }
+        readYourWritesTracker.markCurrentSubjectWrite();
+        readYourWritesTracker.markWrite(update.getEmail() != null ? update.getEmail() : previous.getEmail());
+    }
+
+    private static boolean changes(Customer before, Customer update) {
+        return (update.getName() != null && !update.getName().equals(before.getName()))
+                || (update.getAge() != null && !update.getAge().equals(before.getAge()))
+                || (update.getEmail() != null && !update.getEmail().equals(before.getEmail()));
+    }
+
+    private static DuplicateResourceException emailTaken() {
+        return new DuplicateResourceException("email already taken");
     }
 
     public void uploadCustomerProfileImage(Long customerId, MultipartFile file) {
@@ -134,12 +265,15 @@ public class CustomerService {
                     "profile-images/%s/%s".formatted(customerId, profileImageId),
                     file.getBytes()
             );
-            customerDao.updateCustomerProfileImageId(profileImageId, customerId);
+            writeTransaction.executeWithoutResult(status ->
+                    customerDao.updateCustomerProfileImageId(profileImageId, customerId));
+            readYourWritesTracker.markCurrentSubjectWrite();
         } catch (IOException e) {
             throw new RuntimeException("failed to upload profile image", e);
         }
     }
 
+    @Transactional(readOnly = true)
     public byte[] getCustomerProfileImage(Long customerId) {
         var customer = customerDao.selectCustomerById(customerId)
                 .orElseThrow(() -> new ResourceNotFoundException(
@@ -158,5 +292,77 @@ public class CustomerService {
 
         return profileImage;
     }
-}
 
+    @Transactional(readOnly = true)
+    public CustomerSearchResponse searchCustomers(CustomerSearchRequest request) {
+        CustomerSearchCriteria criteria = searchCriteria(request);
+
+        // fetch one extra row to know whether there is a next page
+        List<Customer> customers = customerDao.searchCustomers(new CustomerSearchCriteria(
+                criteria.name(), criteria.match(), criteria.minAge(), criteria.maxAge(),
+                criteria.gender(), criteria.sort(), criteria.direction(), criteria.after(),
+                criteria.limit() + 1
+        ));
+
+        String nextCursor = null;
+        if (customers.size() > criteria.limit()) {
+            customers = customers.subList(0, criteria.limit());
+            nextCursor = CustomerSearchCursor
+                    .of(criteria.sort(), customers.get(customers.size() - 1))
+                    .encode();
+        }
+
+        return new CustomerSearchResponse(
+                customers.stream()
+                        .map(customerDTOMapper)
+                        .collect(Collectors.toList()),
+                nextCursor
+        );
+    }
+
+    private static CustomerSearchCriteria searchCriteria(CustomerSearchRequest request) {
+        String name = StringUtils.trimToNull(request.name());
+        CustomerNameMatch match = request.match() == null ? CustomerNameMatch.PREFIX : request.match();
+        if (name != null && match == CustomerNameMatch.CONTAINS
+                && name.length() < MIN_CONTAINS_SEARCH_LENGTH) {
+            throw new RequestValidationException(
+                    "name must be at least %s characters for a contains search"
+                            .formatted(MIN_CONTAINS_SEARCH_LENGTH));
+        }
+        if (request.minAge() != null && request.maxAge() != null
+                && request.minAge() > request.maxAge()) {
+            throw new RequestValidationException("minAge must not be greater than maxAge");
+        }
+
+        int limit = request.limit() == null ? DEFAULT_SEARCH_LIMIT : request.limit();
+        if (limit < 1 || limit > MAX_SEARCH_LIMIT) {
+            throw new RequestValidationException(
+                    "limit must be between 1 and %s".formatted(MAX_SEARCH_LIMIT));
+        }
+
+        CustomerSortField sort = request.sort() == null ? CustomerSortField.ID : request.sort();
+        CustomerSearchCursor after = null;
+        if (StringUtils.isNotBlank(request.cursor())) {
+            try {
+                after = CustomerSearchCursor.decode(request.cursor());
+            } catch (IllegalArgumentException e) {
+                throw new RequestValidationException("invalid cursor");
+            }
+            if (after.sort() != sort) {
+                throw new RequestValidationException("cursor does not match sort " + sort);
+            }
+        }
+
+        return new CustomerSearchCriteria(
+                name,
+                match,
+                request.minAge(),
+                request.maxAge(),
+                request.gender(),
+                sort,
+                request.direction() == null ? Sort.Direction.ASC : request.direction(),
+                after,
+                limit
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.aryancodes.customer;
+
+public enum CustomerSortField {
+    ID,
+    NAME,
+    AGE
+}
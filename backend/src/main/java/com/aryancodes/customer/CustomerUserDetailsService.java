@@ -1,25 +1,35 @@
 package com.aryancodes.customer;
 
+import com.aryancodes.cache.CustomerCaches;
 import com.aryancodes.customer.CustomerDao;
+import com.aryancodes.datasource.ReadYourWritesTracker;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class CustomerUserDetailsService implements UserDetailsService {
 
     private final CustomerDao customerDao;
+    private final ReadYourWritesTracker readYourWritesTracker;
 
-    public CustomerUserDetailsService(@Qualifier("jpa") CustomerDao customerDao) {
+    public CustomerUserDetailsService(@Qualifier(CustomerDaoSelection.USER_DETAILS) CustomerDao customerDao,
+                                      ReadYourWritesTracker readYourWritesTracker) {
         this.customerDao = customerDao;
+        this.readYourWritesTracker = readYourWritesTracker;
     }
 
     @Override
+    @Cacheable(cacheNames = CustomerCaches.PRINCIPALS, key = "#username")
+    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username)
             throws UsernameNotFoundException {
-        return customerDao.selectUserByEmail(username)
+        // cached until evicted, so never filled from a replica that may not have the latest write
+        return readYourWritesTracker.onPrimary(() -> customerDao.selectUserByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException(
                         "Username " + username + " not found"));
     }
@@ -0,0 +1,10 @@
+package com.aryancodes.customer;
+
+/**
+ * Changes whenever any customer row is inserted, updated or deleted.
+ */
+public record CustomersVersion(
+        long count,
+        long maxVersion
+) {
+}
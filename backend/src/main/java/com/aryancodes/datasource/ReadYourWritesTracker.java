@@ -0,0 +1,103 @@
+package com.aryancodes.datasource;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers which customers (by email) wrote recently so their own reads
+ * can be pinned to the primary until replicas have caught up.
+ * <p>
+ * The subject of a read is the authenticated principal, or the username
+ * passed to {@link #withSubject(String, Supplier)} while the principal is
+ * still being loaded (login and JWT filter).
+ * <p>
+ * Reads inside {@link #onPrimary(Supplier)} go to the primary whoever the
+ * subject is.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private static final int PRUNE_THRESHOLD = 10_000;
+    private static final ThreadLocal<String> SUBJECT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> ON_PRIMARY = new ThreadLocal<>();
+
+    private final long windowNanos;
+    private final ConcurrentMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(DataSourceRoutingProperties properties) {
+        this.windowNanos = properties.getReadYourWritesWindow().toNanos();
+    }
+
+    public void markWrite(String subject) {
+        if (subject == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        lastWrites.put(subject, now);
+        if (lastWrites.size() > PRUNE_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowNanos);
+        }
+    }
+
+    public void markCurrentSubjectWrite() {
+        markWrite(currentSubject());
+    }
+
+    public boolean currentSubjectRecentlyWrote() {
+        String subject = currentSubject();
+        if (subject == null || lastWrites.isEmpty()) {
+            return false;
+        }
+        Long writtenAt = lastWrites.get(subject);
+        return writtenAt != null && System.nanoTime() - writtenAt <= windowNanos;
+    }
+
+    /**
+     * For reads whose result outlives the request, such as cache fills. A
+     * replica that hasn't replayed a write yet would otherwise have its
+     * stale row cached long after it caught up.
+     */
+    public <T> T onPrimary(Supplier<T> read) {
+        if (ON_PRIMARY.get() != null) {
+            return read.get();
+        }
+        ON_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            ON_PRIMARY.remove();
+        }
+    }
+
+    public boolean currentReadOnPrimary() {
+        return ON_PRIMARY.get() != null;
+    }
+
+    public <T> T withSubject(String subject, Supplier<T> read) {
+        String previous = SUBJECT.get();
+        SUBJECT.set(subject);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                SUBJECT.remove();
+            } else {
+                SUBJECT.set(previous);
+            }
+        }
+    }
+
+    private static String currentSubject() {
+        String subject = SUBJECT.get();
+        if (subject != null) {
+            return subject;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? null : authentication.getName();
+    }
+}
@@ -0,0 +1,100 @@
+package com.aryancodes.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Polls every replica for its replay lag and publishes the ones within
+ * {@code datasource.routing.max-replica-lag}. A replica that can't be
+ * reached, or that is not a standby at all, counts as lagging.
+ * <p>
+ * The published list is only trusted for {@code max-replica-lag} after the
+ * check that produced it; once the checks stop arriving, reads go to the
+ * primary.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String LAG_SQL = """
+            SELECT pg_is_in_recovery() AS standby,
+                   CASE
+                       WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END AS lag_seconds
+            """;
+
+    private record ReplicaState(boolean standby, double lagSeconds) {
+    }
+
+    private record Checked(List<String> healthy, long checkedAt) {
+    }
+
+    private static final RowMapper<ReplicaState> REPLICA_STATE = (rs, rowNum) ->
+            new ReplicaState(rs.getBoolean("standby"), rs.getDouble("lag_seconds"));
+
+    private final Map<String, JdbcTemplate> replicas;
+    private final double maxLagSeconds;
+    private final long staleAfterNanos;
+    private final LongSupplier nanoClock;
+    private volatile Checked checked;
+
+    public ReplicaLagMonitor(Map<String, ? extends DataSource> replicas, Duration maxLag) {
+        this(templates(replicas), maxLag, System::nanoTime);
+    }
+
+    ReplicaLagMonitor(Map<String, JdbcTemplate> replicas, Duration maxLag, LongSupplier nanoClock) {
+        this.replicas = replicas;
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.staleAfterNanos = maxLag.toNanos();
+        this.nanoClock = nanoClock;
+        this.checked = new Checked(List.of(), nanoClock.getAsLong());
+    }
+
+    public List<String> healthyReplicas() {
+        Checked current = checked;
+        if (nanoClock.getAsLong() - current.checkedAt() > staleAfterNanos) {
+            return List.of();
+        }
+        return current.healthy();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval:1s}")
+    public void checkLag() {
+        // the lags are at least as old as the start of the check
+        long startedAt = nanoClock.getAsLong();
+        List<String> healthy = new ArrayList<>(replicas.size());
+        replicas.forEach((name, jdbcTemplate) -> {
+            try {
+                ReplicaState state = jdbcTemplate.queryForObject(LAG_SQL, REPLICA_STATE);
+                if (state == null || !state.standby()) {
+                    log.warn("replica {} is not in recovery, routing reads to primary", name);
+                } else if (state.lagSeconds() <= maxLagSeconds) {
+                    healthy.add(name);
+                } else {
+                    log.warn("replica {} is {}s behind, routing reads to primary", name, state.lagSeconds());
+                }
+            } catch (RuntimeException e) {
+                log.warn("replica {} is unreachable, routing reads to primary: {}", name, e.getMessage());
+            }
+        });
+        checked = new Checked(List.copyOf(healthy), startedAt);
+    }
+
+    private static Map<String, JdbcTemplate> templates(Map<String, ? extends DataSource> replicas) {
+        Map<String, JdbcTemplate> templates = new LinkedHashMap<>();
+        replicas.forEach((name, dataSource) -> templates.put(name, new JdbcTemplate(dataSource)));
+        return templates;
+    }
+}
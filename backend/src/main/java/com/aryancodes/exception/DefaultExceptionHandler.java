@@ -1,72 +1,72 @@
 package com.aryancodes.exception;
 
 import com.aryancodes.exception.ApiError;
-import com.aryancodes.exception.DuplicateResourceException;
-import com.aryancodes.exception.RequestValidationException;
-import com.aryancodes.exception.ResourceNotFoundException;
+import com.aryancodes.json.ApiErrorWriter;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.InsufficientAuthenticationException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 
+/**
+ * A null {@link ResponseEntity} from {@link ApiErrorWriter} means the error
+ * has already been written.
+ */
 @ControllerAdvice
 public class DefaultExceptionHandler {
 
-    @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ApiError> handleException(ResourceNotFoundException e,
-                                                    HttpServletRequest request) {
-        ApiError apiError = new ApiError(
-                request.getRequestURI(),
-                e.getMessage(),
-                HttpStatus.NOT_FOUND.value(),
-                LocalDateTime.now()
-        );
+    private final ApiErrorWriter apiErrorWriter;
 
-        return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
+    public DefaultExceptionHandler(ApiErrorWriter apiErrorWriter) {
+        this.apiErrorWriter = apiErrorWriter;
+    }
+
+    // the Exception handler below would otherwise take these before @ResponseStatus is looked at
+    @ExceptionHandler(DomainException.class)
+    public ResponseEntity<ApiError> handleException(DomainException e,
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
+        HttpStatus status = responseStatus == null ? HttpStatus.BAD_REQUEST : responseStatus.code();
+        return apiErrorWriter.write(request, response, status, e.getMessage());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiError> handleException(ServiceUnavailableException e,
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        return apiErrorWriter.write(request, response, HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
     }
 
     @ExceptionHandler(InsufficientAuthenticationException.class)
     public ResponseEntity<ApiError> handleException(InsufficientAuthenticationException e,
-                                                    HttpServletRequest request) {
-        ApiError apiError = new ApiError(
-                request.getRequestURI(),
-                e.getMessage(),
-                HttpStatus.FORBIDDEN.value(),
-                LocalDateTime.now()
-        );
-
-        return new ResponseEntity<>(apiError, HttpStatus.FORBIDDEN);
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        return apiErrorWriter.write(request, response, HttpStatus.FORBIDDEN, e.getMessage());
     }
 
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<ApiError> handleException(BadCredentialsException e,
-                                                    HttpServletRequest request) {
-        ApiError apiError = new ApiError(
-                request.getRequestURI(),
-                e.getMessage(),
-                HttpStatus.UNAUTHORIZED.value(),
-                LocalDateTime.now()
-        );
-
-        return new ResponseEntity<>(apiError, HttpStatus.UNAUTHORIZED);
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        return apiErrorWriter.write(request, response, HttpStatus.UNAUTHORIZED, e.getMessage());
     }
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiError> handleException(Exception e,
-                                                    HttpServletRequest request) {
-        ApiError apiError = new ApiError(
-                request.getRequestURI(),
-                e.getMessage(),
-                HttpStatus.INTERNAL_SERVER_ERROR.value(),
-                LocalDateTime.now()
-        );
-
-        return new ResponseEntity<>(apiError, HttpStatus.INTERNAL_SERVER_ERROR);
+                                                    HttpServletRequest request,
+                                                    HttpServletResponse response) throws IOException {
+        return apiErrorWriter.write(request, response, HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
     }
 
 }
@@ -0,0 +1,14 @@
+package com.aryancodes.exception;
+
+/**
+ * Base for the errors a request is expected to run into (unknown id, taken
+ * email, invalid input). They are thrown at client-controlled rates and
+ * their stack trace only ever shows the controller they came through, so
+ * none is captured; the message identifies the failure.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
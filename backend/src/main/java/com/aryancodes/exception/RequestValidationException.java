@@ -4,7 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 @ResponseStatus(code = HttpStatus.BAD_REQUEST)
-public class RequestValidationException extends RuntimeException {
+public class RequestValidationException extends DomainException {
     public RequestValidationException(String message) {
         super(message);
     }
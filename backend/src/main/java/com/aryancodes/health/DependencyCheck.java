@@ -0,0 +1,12 @@
+package com.aryancodes.health;
+
+/**
+ * One dependency probe, run off the request path by
+ * {@link DependencyHealthChecker}. Returns a short detail on success and
+ * throws when the dependency is unusable.
+ */
+@FunctionalInterface
+interface DependencyCheck {
+
+    String check() throws Exception;
+}
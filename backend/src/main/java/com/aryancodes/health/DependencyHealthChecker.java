@@ -0,0 +1,253 @@
+package com.aryancodes.health;
+
+import com.aryancodes.s3.S3Buckets;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Checks the database, the Flyway schema and the object store on a schedule
+ * and keeps the latest results, so the probe endpoints answer from memory.
+ * <p>
+ * Rounds run on a scheduler thread of their own, not the shared
+ * {@code @Scheduled} one, so an outbox backlog or a slow statistics job can't
+ * hold up the snapshot and fail liveness. Each check runs on its own thread
+ * and is reported down once it exceeds {@code health.check-timeout}; a check
+ * still hanging from an earlier round is waited on again rather than started
+ * a second time. Probes treat a snapshot older than their threshold as a
+ * failure.
+ */
+@Component
+public class DependencyHealthChecker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyHealthChecker.class);
+
+    static final String DATABASE = "database";
+    static final String FLYWAY = "flyway";
+    static final String OBJECT_STORE = "objectStore";
+    // without these no request can be served; the object store only backs profile images,
+    // and its outages are contained by ObjectStoreGuard rather than by taking the API out
+    static final Set<String> READINESS_GATES = Set.of(DATABASE, FLYWAY);
+
+    private final Map<String, DependencyCheck> checks;
+    private final Duration checkTimeout;
+    private final LongSupplier nanoClock;
+    private final long startedAtNanos;
+    private final ExecutorService checkExecutor;
+    private final Map<String, Future<DependencyStatus>> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "health-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile HealthSnapshot snapshot;
+
+    @Autowired
+    public DependencyHealthChecker(DataSource dataSource,
+                                   ObjectProvider<Flyway> flyway,
+                                   S3Client s3Client,
+                                   S3Buckets s3Buckets,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${health.database-timeout:2s}") Duration databaseTimeout,
+                                   @Value("${health.check-timeout:3s}") Duration checkTimeout,
+                                   @Value("${health.initial-delay:0s}") Duration initialDelay,
+                                   @Value("${health.check-interval:5s}") Duration checkInterval) {
+        this(checks(dataSource, flyway, s3Client, s3Buckets, databaseTimeout, checkTimeout),
+                checkTimeout,
+                System::nanoTime);
+        checks.keySet().forEach(name -> Gauge.builder("health.dependency.up", this, checker -> checker.up(name))
+                .description("1 if the dependency passed its latest check, 0 if it failed")
+                .tag("dependency", name)
+                .register(meterRegistry));
+        scheduler.scheduleWithFixedDelay(this::refresh,
+                initialDelay.toMillis(), checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    DependencyHealthChecker(Map<String, DependencyCheck> checks, Duration checkTimeout, LongSupplier nanoClock) {
+        this.checks = checks;
+        this.checkTimeout = checkTimeout;
+        this.nanoClock = nanoClock;
+        this.startedAtNanos = nanoClock.getAsLong();
+        // at most one run of each check is in flight, so one thread per check never queues
+        AtomicInteger threads = new AtomicInteger();
+        this.checkExecutor = Executors.newFixedThreadPool(Math.max(1, checks.size()), runnable -> {
+            Thread thread = new Thread(runnable, "health-check-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The latest results, or {@code null} before the first round completes.
+     */
+    HealthSnapshot snapshot() {
+        return snapshot;
+    }
+
+    private double up(String name) {
+        HealthSnapshot current = snapshot;
+        DependencyStatus status = current == null ? null : current.dependencies().get(name);
+        return status == null ? Double.NaN : status.up() ? 1 : 0;
+    }
+
+    /**
+     * Time since the latest round completed, or since startup if none has.
+     */
+    Duration age() {
+        HealthSnapshot current = snapshot;
+        long since = current == null ? startedAtNanos : current.checkedAtNanos();
+        return Duration.ofNanos(nanoClock.getAsLong() - since);
+    }
+
+    public void refresh() {
+        Map<String, Future<DependencyStatus>> started = new LinkedHashMap<>();
+        checks.forEach((name, check) -> started.put(name, start(name, check)));
+
+        long deadline = nanoClock.getAsLong() + checkTimeout.toNanos();
+        Map<String, DependencyStatus> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<DependencyStatus>> entry : started.entrySet()) {
+            DependencyStatus status;
+            try {
+                status = entry.getValue().get(Math.max(0, deadline - nanoClock.getAsLong()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                status = new DependencyStatus(false, "timed out after " + checkTimeout.toMillis() + "ms",
+                        checkTimeout.toMillis());
+            } catch (ExecutionException e) {
+                status = new DependencyStatus(false, describe(e.getCause()), 0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            warnIfNewlyDown(entry.getKey(), status);
+            results.put(entry.getKey(), status);
+        }
+        snapshot = new HealthSnapshot(Collections.unmodifiableMap(results), nanoClock.getAsLong());
+    }
+
+    private Future<DependencyStatus> start(String name, DependencyCheck check) {
+        return running.compute(name, (key, previous) -> previous != null && !previous.isDone()
+                ? previous
+                : checkExecutor.submit(() -> run(check)));
+    }
+
+    private DependencyStatus run(DependencyCheck check) {
+        long start = nanoClock.getAsLong();
+        boolean up;
+        String detail;
+        try {
+            detail = check.check();
+            up = true;
+        } catch (Exception e) {
+            detail = describe(e);
+            up = false;
+        }
+        long latency = TimeUnit.NANOSECONDS.toMillis(nanoClock.getAsLong() - start);
+        return new DependencyStatus(up, detail, latency);
+    }
+
+    private void warnIfNewlyDown(String name, DependencyStatus status) {
+        if (status.up()) {
+            return;
+        }
+        HealthSnapshot previous = snapshot;
+        if (previous == null || previous.dependencies().get(name) == null
+                || previous.dependencies().get(name).up()) {
+            log.warn("{} check failed: {}", name, status.detail());
+        }
+    }
+
+    private static String describe(Throwable e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        checkExecutor.shutdownNow();
+    }
+
+    private static Map<String, DependencyCheck> checks(DataSource dataSource,
+                                                       ObjectProvider<Flyway> flyway,
+                                                       S3Client s3Client,
+                                                       S3Buckets s3Buckets,
+                                                       Duration databaseTimeout,
+                                                       Duration checkTimeout) {
+        Map<String, DependencyCheck> checks = new LinkedHashMap<>();
+        checks.put(DATABASE, () -> checkDatabase(dataSource, databaseTimeout));
+        flyway.ifAvailable(migrations -> checks.put(FLYWAY, () -> checkFlyway(migrations)));
+        checks.put(OBJECT_STORE, () -> {
+            s3Client.headBucket(HeadBucketRequest.builder()
+                    .bucket(s3Buckets.getCustomer())
+                    .overrideConfiguration(request -> request.apiCallTimeout(checkTimeout))
+                    .build());
+            return "bucket %s reachable".formatted(s3Buckets.getCustomer());
+        });
+        return checks;
+    }
+
+    private static String checkDatabase(DataSource dataSource, Duration timeout) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid((int) Math.max(1, timeout.toSeconds()))) {
+                throw new IllegalStateException("connection failed validation");
+            }
+        }
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            if (pool != null) {
+                return "pool active=%d idle=%d total=%d waiting=%d".formatted(
+                        pool.getActiveConnections(),
+                        pool.getIdleConnections(),
+                        pool.getTotalConnections(),
+                        pool.getThreadsAwaitingConnection());
+            }
+        }
+        return "connection valid";
+    }
+
+    private static String checkFlyway(Flyway flyway) {
+        MigrationInfoService info = flyway.info();
+        MigrationInfo[] failed = Arrays.stream(info.all())
+                .filter(migration -> migration.getState().isFailed())
+                .toArray(MigrationInfo[]::new);
+        if (failed.length > 0) {
+            throw new IllegalStateException("migration %s failed".formatted(failed[0].getVersion()));
+        }
+        if (info.pending().length > 0) {
+            throw new IllegalStateException("%d pending migrations".formatted(info.pending().length));
+        }
+        MigrationInfo current = info.current();
+        return current == null ? "no migrations" : "schema at version " + current.getVersion();
+    }
+}
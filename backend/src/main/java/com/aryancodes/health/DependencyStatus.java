@@ -0,0 +1,4 @@
+package com.aryancodes.health;
+
+public record DependencyStatus(boolean up, String detail, long latencyMillis) {
+}
@@ -0,0 +1,24 @@
+package com.aryancodes.health;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of one round of dependency checks, taken at {@code checkedAtNanos}
+ * on the {@link System#nanoTime()} clock.
+ */
+record HealthSnapshot(Map<String, DependencyStatus> dependencies, long checkedAtNanos) {
+
+    boolean allUp() {
+        return dependencies.values().stream().allMatch(DependencyStatus::up);
+    }
+
+    /**
+     * Whether every one of {@code names} that was checked is up; others are ignored.
+     */
+    boolean allUp(Set<String> names) {
+        return dependencies.entrySet().stream()
+                .filter(dependency -> names.contains(dependency.getKey()))
+                .allMatch(dependency -> dependency.getValue().up());
+    }
+}
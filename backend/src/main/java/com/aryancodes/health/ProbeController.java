@@ -0,0 +1,99 @@
+package com.aryancodes.health;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load-balancer and orchestrator probes. Both answer from the
+ * {@link DependencyHealthChecker} snapshot and never do I/O themselves.
+ * <ul>
+ *     <li>{@code /health/live} fails only when the checker itself has stopped
+ *     making progress, so a dependency outage doesn't restart the app.</li>
+ *     <li>{@code /health/ready} fails while the database or the schema is
+ *     down or the snapshot is older than {@code health.readiness.stale-after}.
+ *     An object-store outage leaves every instance ready; it shows in the
+ *     {@code health.dependency.up} gauge instead.</li>
+ * </ul>
+ * The probes are public, so they answer with the status alone; which
+ * dependency failed and why is logged by the checker.
+ */
+@RestController
+public class ProbeController {
+
+    record PingPong(String result) {}
+
+    record ProbeResponse(String status) {}
+
+    private final DependencyHealthChecker checker;
+    private final Duration livenessStaleAfter;
+    private final Duration readinessStaleAfter;
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder liveUp = new LongAdder();
+    private final LongAdder liveDown = new LongAdder();
+    private final LongAdder readyUp = new LongAdder();
+    private final LongAdder readyDown = new LongAdder();
+
+    public ProbeController(DependencyHealthChecker checker,
+                           MeterRegistry meterRegistry,
+                           @Value("${health.liveness.stale-after:2m}") Duration livenessStaleAfter,
+                           @Value("${health.readiness.stale-after:30s}") Duration readinessStaleAfter) {
+        this.checker = checker;
+        this.livenessStaleAfter = livenessStaleAfter;
+        this.readinessStaleAfter = readinessStaleAfter;
+        register(meterRegistry, "ping", "up", pings);
+        register(meterRegistry, "liveness", "up", liveUp);
+        register(meterRegistry, "liveness", "down", liveDown);
+        register(meterRegistry, "readiness", "up", readyUp);
+        register(meterRegistry, "readiness", "down", readyDown);
+    }
+
+    @GetMapping("/ping")
+    public PingPong getPingPong() {
+        pings.increment();
+        return new PingPong("Pong: %s".formatted(pings.sum()));
+    }
+
+    @GetMapping("/health/live")
+    public ResponseEntity<ProbeResponse> liveness() {
+        Duration age = checker.age();
+        boolean up = age.compareTo(livenessStaleAfter) <= 0;
+        (up ? liveUp : liveDown).increment();
+        return respond(up);
+    }
+
+    @GetMapping("/health/ready")
+    public ResponseEntity<ProbeResponse> readiness() {
+        HealthSnapshot snapshot = checker.snapshot();
+        Duration age = checker.age();
+        boolean up = snapshot != null
+                && snapshot.allUp(DependencyHealthChecker.READINESS_GATES)
+                && age.compareTo(readinessStaleAfter) <= 0;
+        (up ? readyUp : readyDown).increment();
+        return respond(up);
+    }
+
+    private static ResponseEntity<ProbeResponse> respond(boolean up) {
+        return ResponseEntity
+                .status(up ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(new ProbeResponse(up ? "UP" : "DOWN"));
+    }
+
+    private static void register(MeterRegistry meterRegistry,
+                                 String probe,
+                                 String outcome,
+                                 LongAdder counter) {
+        FunctionCounter.builder("health.probes", counter, LongAdder::sum)
+                .description("Probe requests answered")
+                .tag("probe", probe)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
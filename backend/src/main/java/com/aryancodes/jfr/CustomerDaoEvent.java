@@ -0,0 +1,27 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.aryancodes.CustomerDao")
+@Label("Customer DAO Call")
+@Category({"Aryancodes", "Persistence"})
+@Description("A call into a CustomerDao implementation")
+@StackTrace(false)
+public class CustomerDaoEvent extends jdk.jfr.Event {
+
+    @Label("Implementation")
+    public String implementation;
+
+    @Label("Method")
+    public String method;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Failed")
+    public boolean failed;
+}
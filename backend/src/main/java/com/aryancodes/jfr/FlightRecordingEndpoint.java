@@ -0,0 +1,175 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts, stops and downloads a single bounded JFR recording that includes
+ * the application events in this package. Requested size and age are
+ * clamped to {@code management.jfr.max-age} and {@code max-size} so a
+ * forgotten recording cannot fill the disk, and each dump is deleted once it
+ * has been streamed.
+ * <p>
+ * The initial environment and system property events are left out, they
+ * carry the database and AWS credentials.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class FlightRecordingEndpoint implements DisposableBean {
+
+    private static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+    private static final long DEFAULT_MAX_SIZE_MB = 100;
+    private static final List<String> SECRET_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable",
+            "jdk.InitialSystemProperty"
+    );
+    private static final List<Class<? extends jdk.jfr.Event>> EVENTS = List.of(
+            CustomerDaoEvent.class,
+            S3TransferEvent.class,
+            JwtVerificationEvent.class,
+            PasswordHashEvent.class
+    );
+
+    private final Duration maxAge;
+    private final long maxSizeMb;
+
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecordingEndpoint(@Value("${management.jfr.max-age:1h}") Duration maxAge,
+                                   @Value("${management.jfr.max-size:500MB}") DataSize maxSize) {
+        this.maxAge = maxAge;
+        this.maxSizeMb = maxSize.toMegabytes();
+    }
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable Long maxAgeSeconds,
+                                                  @Nullable Long maxSizeMb) {
+        closeRecording();
+        try {
+            Recording newRecording = new Recording(Configuration.getConfiguration("profile"));
+            for (Class<? extends jdk.jfr.Event> event : EVENTS) {
+                newRecording.enable(event);
+            }
+            for (String event : SECRET_EVENTS) {
+                newRecording.disable(event);
+            }
+            newRecording.setName("aryancodes-on-demand");
+            newRecording.setToDisk(true);
+            long ageSeconds = clamp(maxAgeSeconds, DEFAULT_MAX_AGE.toSeconds(), maxAge.toSeconds());
+            newRecording.setMaxAge(Duration.ofSeconds(ageSeconds));
+            newRecording.setMaxSize(DataSize.ofMegabytes(clamp(maxSizeMb, DEFAULT_MAX_SIZE_MB, this.maxSizeMb)).toBytes());
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("failed to start flight recording", e);
+        }
+        return status();
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> download() {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            deleteLastDump();
+            lastDump = Files.createTempFile("aryancodes-", ".jfr");
+            recording.dump(lastDump);
+            return new WebEndpointResponse<>(new DeleteOnCloseResource(lastDump));
+        } catch (IOException e) {
+            throw new UncheckedIOException("failed to dump flight recording", e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        closeRecording();
+        deleteLastDump();
+    }
+
+    private static long clamp(@Nullable Long requested, long defaultValue, long max) {
+        long value = requested == null ? Math.min(defaultValue, max) : requested;
+        return Math.max(1, Math.min(value, max));
+    }
+
+    private Map<String, Object> status() {
+        return Map.of(
+                "state", recording == null ? "NONE" : recording.getState().name(),
+                "maxAgeSeconds", recording == null ? 0 : recording.getMaxAge().toSeconds(),
+                "maxSizeBytes", recording == null ? 0 : recording.getMaxSize()
+        );
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteLastDump() throws IOException {
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+            lastDump = null;
+        }
+    }
+
+    /**
+     * The dump file, removed when the response has finished reading it. A
+     * download that never gets that far is cleaned up by the next one.
+     */
+    private static final class DeleteOnCloseResource extends FileSystemResource {
+
+        private DeleteOnCloseResource(Path path) {
+            super(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            Path path = getFile().toPath();
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(path);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.aryancodes.JwtVerification")
+@Label("JWT Verification")
+@Category({"Aryancodes", "Security"})
+@Description("Parsing and signature verification of a JWT")
+@StackTrace(false)
+public class JwtVerificationEvent extends jdk.jfr.Event {
+
+    @Label("Failed")
+    public boolean failed;
+}
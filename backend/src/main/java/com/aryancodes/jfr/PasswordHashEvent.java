@@ -0,0 +1,18 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.aryancodes.PasswordHash")
+@Label("Password Hash")
+@Category({"Aryancodes", "Security"})
+@Description("A PasswordEncoder encode or matches call")
+@StackTrace(false)
+public class PasswordHashEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+}
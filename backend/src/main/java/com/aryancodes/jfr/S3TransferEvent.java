@@ -0,0 +1,45 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.aryancodes.S3Transfer")
+@Label("S3 Transfer")
+@Category({"Aryancodes", "Object Store"})
+@Description("An object store get or put issued by S3Service")
+@StackTrace(false)
+public class S3TransferEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Bucket")
+    public String bucket;
+
+    @Label("Key Prefix")
+    public String keyPrefix;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Keeps the first two path segments of the key, e.g.
+     * {@code profile-images/42}, so recordings don't carry image ids.
+     */
+    public static String keyPrefix(String key) {
+        int first = key.indexOf('/');
+        if (first < 0) {
+            return key;
+        }
+        int second = key.indexOf('/', first + 1);
+        return second < 0 ? key : key.substring(0, second);
+    }
+}
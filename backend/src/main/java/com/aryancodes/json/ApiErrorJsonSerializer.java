@@ -0,0 +1,43 @@
+package com.aryancodes.json;
+
+import com.aryancodes.exception.ApiError;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+
+@JsonComponent
+public class ApiErrorJsonSerializer extends StdSerializer<ApiError> {
+
+    private static final SerializableString PATH = new SerializedString("path");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString STATUS_CODE = new SerializedString("statusCode");
+    private static final SerializableString LOCAL_DATE_TIME = new SerializedString("localDateTime");
+
+    public ApiErrorJsonSerializer() {
+        super(ApiError.class);
+    }
+
+    @Override
+    public void serialize(ApiError error, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(error);
+        gen.writeFieldName(PATH);
+        gen.writeString(error.path());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(error.message());
+        gen.writeFieldName(STATUS_CODE);
+        gen.writeNumber(error.statusCode());
+        gen.writeFieldName(LOCAL_DATE_TIME);
+        // same text as jackson-datatype-jsr310 with WRITE_DATES_AS_TIMESTAMPS off, as Boot configures it
+        gen.writeString(error.localDateTime() == null
+                ? null
+                : DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(error.localDateTime()));
+        gen.writeEndObject();
+    }
+}
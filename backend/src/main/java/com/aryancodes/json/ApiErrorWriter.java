@@ -0,0 +1,160 @@
+package com.aryancodes.json;
+
+import com.aryancodes.exception.ApiError;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes {@link ApiError} JSON straight to the response from pre-encoded
+ * fragments, skipping message-converter negotiation and the ObjectMapper.
+ * The bytes match what {@link ApiErrorJsonSerializer} produces, except that
+ * the timestamp is truncated to the millisecond so one encoding can be shared
+ * by every error answered within it.
+ * <p>
+ * Requests that ask for CBOR or Smile get a {@link ResponseEntity} back and
+ * go through the converters as before.
+ */
+@Component
+public class ApiErrorWriter {
+
+    private static final byte[] PATH = ascii("{\"path\":");
+    private static final byte[] MESSAGE = ascii(",\"message\":");
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] END = ascii("}");
+
+    private record Timestamp(long millis, byte[] json) {
+    }
+
+    private final Clock clock;
+    // ,"statusCode":404,"localDateTime":
+    private final Map<HttpStatus, byte[]> statusFields = new EnumMap<>(HttpStatus.class);
+    private volatile Timestamp timestamp = new Timestamp(Long.MIN_VALUE, NULL);
+
+    public ApiErrorWriter() {
+        this(Clock.systemDefaultZone());
+    }
+
+    ApiErrorWriter(Clock clock) {
+        this.clock = clock;
+        for (HttpStatus status : HttpStatus.values()) {
+            statusFields.put(status, ascii(",\"statusCode\":%d,\"localDateTime\":".formatted(status.value())));
+        }
+    }
+
+    /**
+     * @return null if the error was written to {@code response}, otherwise the
+     * entity for the message converters to render
+     */
+    public ResponseEntity<ApiError> write(HttpServletRequest request,
+                                          HttpServletResponse response,
+                                          HttpStatus status,
+                                          String message) throws IOException {
+        if (!acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            ApiError apiError = new ApiError(
+                    request.getRequestURI(),
+                    message,
+                    status.value(),
+                    LocalDateTime.now(clock)
+            );
+            return new ResponseEntity<>(apiError, status);
+        }
+
+        byte[] body = encode(request.getRequestURI(), message, status);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return null;
+    }
+
+    byte[] encode(String path, String message, HttpStatus status) {
+        byte[] statusField = statusFields.get(status);
+        byte[] time = timestamp();
+        byte[] buffer = new byte[PATH.length + MESSAGE.length + statusField.length + time.length
+                + END.length + quotedLength(path) + quotedLength(message)];
+        int at = put(buffer, 0, PATH);
+        at = putString(buffer, at, path);
+        at = put(buffer, at, MESSAGE);
+        at = putString(buffer, at, message);
+        at = put(buffer, at, statusField);
+        at = put(buffer, at, time);
+        at = put(buffer, at, END);
+        return at == buffer.length ? buffer : Arrays.copyOf(buffer, at);
+    }
+
+    private byte[] timestamp() {
+        long now = clock.millis();
+        Timestamp current = timestamp;
+        if (current.millis() != now) {
+            LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(now), clock.getZone());
+            current = new Timestamp(now, ascii('"' + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(time) + '"'));
+            timestamp = current;
+        }
+        return current.json();
+    }
+
+    private static boolean acceptsJson(String accept) {
+        // the binary formats BinaryContentNegotiationConfig adds are the only non-JSON renderings
+        return accept == null || !(accept.contains("cbor") || accept.contains("smile"));
+    }
+
+    // plain printable ASCII is copied as is; anything else goes through Jackson's escaping
+    private static boolean isPlain(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int quotedLength(String value) {
+        if (value == null) {
+            return NULL.length;
+        }
+        // an upper bound for escaped values, trimmed after writing
+        return isPlain(value) ? value.length() + 2 : value.length() * 6 + 2;
+    }
+
+    private static int putString(byte[] buffer, int at, String value) {
+        if (value == null) {
+            return put(buffer, at, NULL);
+        }
+        buffer[at++] = '"';
+        if (isPlain(value)) {
+            for (int i = 0; i < value.length(); i++) {
+                buffer[at++] = (byte) value.charAt(i);
+            }
+        } else {
+            at = put(buffer, at, JsonStringEncoder.getInstance().quoteAsUTF8(value));
+        }
+        buffer[at++] = '"';
+        return at;
+    }
+
+    private static int put(byte[] buffer, int at, byte[] bytes) {
+        System.arraycopy(bytes, 0, buffer, at, bytes.length);
+        return at + bytes.length;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,37 @@
+package com.aryancodes.json;
+
+import com.aryancodes.auth.AuthenticationResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+
+@JsonComponent
+public class AuthenticationResponseJsonSerializer extends StdSerializer<AuthenticationResponse> {
+
+    private static final SerializableString TOKEN = new SerializedString("token");
+    private static final SerializableString CUSTOMER_DTO = new SerializedString("customerDTO");
+
+    public AuthenticationResponseJsonSerializer() {
+        super(AuthenticationResponse.class);
+    }
+
+    @Override
+    public void serialize(AuthenticationResponse response, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(response);
+        gen.writeFieldName(TOKEN);
+        gen.writeString(response.token());
+        gen.writeFieldName(CUSTOMER_DTO);
+        if (response.customerDTO() == null) {
+            gen.writeNull();
+        } else {
+            CustomerDTOJsonSerializer.INSTANCE.serialize(response.customerDTO(), gen, provider);
+        }
+        gen.writeEndObject();
+    }
+}
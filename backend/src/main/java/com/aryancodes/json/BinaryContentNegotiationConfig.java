@@ -0,0 +1,62 @@
+package com.aryancodes.json;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Serves CBOR ({@code application/cbor}) and Smile
+ * ({@code application/x-jackson-smile}) to clients that ask for them in
+ * {@code Accept}, and reads them as request bodies. Both mappers come from
+ * Boot's {@link Jackson2ObjectMapperBuilder}, so they carry the same modules
+ * and serializers as the JSON one.
+ * <p>
+ * Spring MVC already registers CBOR and Smile converters when the dataformats
+ * are on the classpath, built without Boot's customizers. Those are replaced
+ * where they stand rather than appended to (the first converter of a type
+ * wins) or registered as beans (which Boot would put first): an
+ * {@code Accept} of {@code *}{@code /*} (browsers, fetch, curl) must keep
+ * resolving to JSON.
+ */
+@Configuration
+public class BinaryContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    public BinaryContentNegotiationConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        replace(converters, MappingJackson2CborHttpMessageConverter.class,
+                new MappingJackson2CborHttpMessageConverter(builder().factory(new CBORFactory()).build()));
+        replace(converters, MappingJackson2SmileHttpMessageConverter.class,
+                new MappingJackson2SmileHttpMessageConverter(builder().factory(new SmileFactory()).build()));
+    }
+
+    private static void replace(List<HttpMessageConverter<?>> converters,
+                                Class<?> type,
+                                HttpMessageConverter<?> converter) {
+        int index = converters.size();
+        for (int i = converters.size() - 1; i >= 0; i--) {
+            if (type.isInstance(converters.get(i))) {
+                converters.remove(i);
+                index = i;
+            }
+        }
+        converters.add(index, converter);
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return objectMapperBuilder.getIfAvailable(Jackson2ObjectMapperBuilder::json);
+    }
+}
@@ -0,0 +1,159 @@
+package com.aryancodes.json;
+
+import com.aryancodes.customer.CustomerDTO;
+import com.aryancodes.customer.CustomerField;
+import com.aryancodes.customer.CustomerFields;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link CustomerDTO} straight through the generator instead of
+ * reflective record binding. Field names and {@link Gender} constants are
+ * encoded once; the output matches what the default binding produced.
+ * A request's {@code ?fields=} reaches it through {@link CustomerFieldsFilter}.
+ */
+@JsonComponent
+public class CustomerDTOJsonSerializer extends StdSerializer<CustomerDTO> {
+
+    static final CustomerDTOJsonSerializer INSTANCE = new CustomerDTOJsonSerializer();
+
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString GENDER = new SerializedString("gender");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString ROLES = new SerializedString("roles");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString PROFILE_IMAGE_ID = new SerializedString("profileImageId");
+
+    private static final Map<Gender, SerializableString> GENDERS = new EnumMap<>(Gender.class);
+
+    static {
+        for (Gender gender : Gender.values()) {
+            GENDERS.put(gender, new SerializedString(gender.name()));
+        }
+    }
+
+    public CustomerDTOJsonSerializer() {
+        super(CustomerDTO.class);
+    }
+
+    @Override
+    public void serialize(CustomerDTO customer, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        CustomerFields fields = provider.getFilterProvider() instanceof CustomerFieldsFilter filter
+                ? filter.fields()
+                : CustomerFields.ALL;
+        if (fields.isAll()) {
+            serializeAll(customer, gen);
+        } else {
+            serializeFields(customer, fields, gen);
+        }
+    }
+
+    private static void serializeAll(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeStartObject(customer);
+        writeId(customer, gen);
+        writeName(customer, gen);
+        writeEmail(customer, gen);
+        writeGender(customer, gen);
+        writeAge(customer, gen);
+        writeRoles(customer, gen);
+        writeUsername(customer, gen);
+        writeProfileImageId(customer, gen);
+        gen.writeEndObject();
+    }
+
+    private static void serializeFields(CustomerDTO customer, CustomerFields fields, JsonGenerator gen)
+            throws IOException {
+        gen.writeStartObject(customer);
+        if (fields.contains(CustomerField.ID)) {
+            writeId(customer, gen);
+        }
+        if (fields.contains(CustomerField.NAME)) {
+            writeName(customer, gen);
+        }
+        if (fields.contains(CustomerField.EMAIL)) {
+            writeEmail(customer, gen);
+        }
+        if (fields.contains(CustomerField.GENDER)) {
+            writeGender(customer, gen);
+        }
+        if (fields.contains(CustomerField.AGE)) {
+            writeAge(customer, gen);
+        }
+        if (fields.contains(CustomerField.ROLES)) {
+            writeRoles(customer, gen);
+        }
+        if (fields.contains(CustomerField.USERNAME)) {
+            writeUsername(customer, gen);
+        }
+        if (fields.contains(CustomerField.PROFILE_IMAGE_ID)) {
+            writeProfileImageId(customer, gen);
+        }
+        gen.writeEndObject();
+    }
+
+    private static void writeId(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(ID);
+        JsonFields.writeNumber(gen, customer.id());
+    }
+
+    private static void writeName(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(NAME);
+        gen.writeString(customer.name());
+    }
+
+    private static void writeEmail(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(EMAIL);
+        gen.writeString(customer.email());
+    }
+
+    private static void writeGender(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(GENDER);
+        if (customer.gender() == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(GENDERS.get(customer.gender()));
+        }
+    }
+
+    private static void writeAge(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(AGE);
+        JsonFields.writeNumber(gen, customer.age());
+    }
+
+    private static void writeUsername(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(USERNAME);
+        gen.writeString(customer.username());
+    }
+
+    private static void writeProfileImageId(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(PROFILE_IMAGE_ID);
+        gen.writeString(customer.profileImageId());
+    }
+
+    private static void writeRoles(CustomerDTO customer, JsonGenerator gen) throws IOException {
+        gen.writeFieldName(ROLES);
+        List<String> roles = customer.roles();
+        if (roles == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(roles, roles.size());
+        for (String role : roles) {
+            gen.writeString(role);
+        }
+        gen.writeEndArray();
+    }
+}
@@ -0,0 +1,45 @@
+package com.aryancodes.json;
+
+import com.aryancodes.customer.CustomerFields;
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Carries the {@link CustomerFields} of a request to
+ * {@link CustomerDTOJsonSerializer} through the writer's filter provider,
+ * which every Jackson based converter (JSON, CBOR, Smile) applies for a
+ * {@link MappingJacksonValue}. It filters nothing by itself.
+ */
+public final class CustomerFieldsFilter extends FilterProvider {
+
+    private final CustomerFields fields;
+
+    private CustomerFieldsFilter(CustomerFields fields) {
+        this.fields = fields;
+    }
+
+    public static MappingJacksonValue apply(Object body, CustomerFields fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        if (!fields.isAll()) {
+            value.setFilters(new CustomerFieldsFilter(fields));
+        }
+        return value;
+    }
+
+    CustomerFields fields() {
+        return fields;
+    }
+
+    @Override
+    @Deprecated
+    public BeanPropertyFilter findFilter(Object filterId) {
+        return null;
+    }
+
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        return null;
+    }
+}
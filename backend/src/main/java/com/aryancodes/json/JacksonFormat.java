@@ -0,0 +1,53 @@
+package com.aryancodes.json;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The representations {@link BinaryContentNegotiationConfig} lets a client
+ * choose between, in the order the converters are registered. Lets a handler
+ * know which one a request will get before the body is written, e.g. to key
+ * an entity tag on it.
+ */
+public enum JacksonFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile"));
+
+    private final MediaType mediaType;
+
+    JacksonFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Mirrors Spring MVC's choice: the highest quality acceptable type wins,
+     * and a wildcard matches JSON first. Anything unparseable or unmatched is
+     * JSON, as the converters would answer it.
+     */
+    public static JacksonFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> acceptable;
+        try {
+            acceptable = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        // stable, so types of equal quality keep the header's order
+        acceptable.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        for (MediaType type : acceptable) {
+            for (JacksonFormat format : values()) {
+                if (type.getQualityValue() > 0 && type.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
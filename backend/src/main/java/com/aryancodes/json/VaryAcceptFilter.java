@@ -0,0 +1,39 @@
+package com.aryancodes.json;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Marks every API response as varying on {@code Accept}, since
+ * {@link BinaryContentNegotiationConfig} serves JSON, CBOR or Smile from the
+ * same URL. Without it a browser or shared cache could replay one format to a
+ * client that asked for another, and a 304 would confirm it. Set before the
+ * handler runs so 304s and error responses carry it too.
+ */
+@Component
+public class VaryAcceptFilter extends OncePerRequestFilter {
+
+    static final String API_PREFIX = "/api/v1/";
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,6 +1,8 @@
 package com.aryancodes.jwt;
 
 import com.aryancodes.customer.CustomerUserDetailsService;
+import com.aryancodes.metrics.RequestPhase;
+import com.aryancodes.metrics.RequestTimings;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 @Component
 public class JWTAuthenticationFilter extends OncePerRequestFilter {
@@ -42,12 +45,15 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String jwt = authHeader.substring(7);
-        String subject = jwtUtil.getSubject(jwt);
+        String subject = timed(RequestPhase.JWT, () -> jwtUtil.getSubject(jwt));
 
         if (subject != null &&
                 SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(subject);
-            if (jwtUtil.isTokenValid(jwt, userDetails.getUsername())) {
+            UserDetails userDetails = timed(
+                    RequestPhase.USER_DETAILS,
+                    () -> userDetailsService.loadUserByUsername(subject)
+            );
+            if (timed(RequestPhase.JWT, () -> jwtUtil.isTokenValid(jwt, userDetails.getUsername()))) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
@@ -61,4 +67,13 @@ public class JWTAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
 
     }
+
+    private static <T> T timed(RequestPhase phase, Supplier<T> supplier) {
+        RequestPhase previous = RequestTimings.enter(phase);
+        try {
+            return supplier.get();
+        } finally {
+            RequestTimings.exit(previous);
+        }
+    }
 }
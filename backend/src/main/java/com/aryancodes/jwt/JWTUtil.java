@@ -1,5 +1,6 @@
 package com.aryancodes.jwt;
 
+import com.aryancodes.jfr.JwtVerificationEvent;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -58,13 +59,25 @@ public class JWTUtil {
     }
 
     private Claims getClaims(String token) {
-        Claims claims = Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims;
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        boolean failed = true;
+        try {
+            Claims claims = Jwts
+                    .parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build()
+                    .parseClaimsJws(token)
+                    .getBody();
+            failed = false;
+            return claims;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.failed = failed;
+                event.commit();
+            }
+        }
     }
 
     private Key getSigningKey() {
@@ -0,0 +1,158 @@
+package com.aryancodes.metrics;
+
+import com.aryancodes.customer.CustomerDao;
+import com.aryancodes.jfr.CustomerDaoEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps every {@link CustomerDao} bean in a proxy that records a timer, an
+ * error counter and a row-count summary per method, tagged with the bean name
+ * ({@code jdbc}, {@code jpa}, {@code list}) as the implementation.
+ */
+@Component
+public class CustomerDaoInstrumentation implements BeanPostProcessor {
+
+    static final String DURATION = "customer.dao.duration";
+    static final String ERRORS = "customer.dao.errors";
+    static final String ROWS = "customer.dao.rows";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public CustomerDaoInstrumentation(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof CustomerDao customerDao) {
+            return instrument(customerDao, beanName, meterRegistry.getObject());
+        }
+        return bean;
+    }
+
+    public static CustomerDao instrument(CustomerDao target,
+                                         String implementation,
+                                         MeterRegistry meterRegistry) {
+        return (CustomerDao) Proxy.newProxyInstance(
+                CustomerDao.class.getClassLoader(),
+                new Class<?>[]{CustomerDao.class},
+                new MeteredInvocationHandler(target, implementation, meterRegistry)
+        );
+    }
+
+    private static final class MeteredInvocationHandler implements InvocationHandler {
+
+        private final CustomerDao target;
+        private final String implementation;
+        private final MeterRegistry meterRegistry;
+        private final Map<Method, MethodMeters> meters = new HashMap<>();
+
+        private MeteredInvocationHandler(CustomerDao target,
+                                         String implementation,
+                                         MeterRegistry meterRegistry) {
+            this.target = target;
+            this.implementation = implementation;
+            this.meterRegistry = meterRegistry;
+            for (Method method : CustomerDao.class.getMethods()) {
+                meters.put(method, new MethodMeters(method.getName()));
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            MethodMeters methodMeters = meters.get(method);
+            if (methodMeters == null) {
+                return invokeTarget(method, args);
+            }
+
+            RequestPhase previous = RequestTimings.enter(RequestPhase.DAO);
+            CustomerDaoEvent event = new CustomerDaoEvent();
+            event.begin();
+            long start = System.nanoTime();
+            int rows = 0;
+            boolean failed = false;
+            try {
+                Object result = invokeTarget(method, args);
+                rows = methodMeters.recordRows(result);
+                return result;
+            } catch (Throwable e) {
+                failed = true;
+                meterRegistry.counter(ERRORS,
+                        "implementation", implementation,
+                        "method", method.getName(),
+                        "exception", e.getClass().getSimpleName()
+                ).increment();
+                throw e;
+            } finally {
+                methodMeters.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                RequestTimings.exit(previous);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.implementation = implementation;
+                    event.method = method.getName();
+                    event.rows = rows;
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private final class MethodMeters {
+
+            private final Timer timer;
+            private final DistributionSummary rows;
+
+            private MethodMeters(String method) {
+                this.timer = Timer.builder(DURATION)
+                        .description("Time spent in CustomerDao calls")
+                        .tag("implementation", implementation)
+                        .tag("method", method)
+                        .register(meterRegistry);
+                this.rows = DistributionSummary.builder(ROWS)
+                        .description("Rows returned or affected by CustomerDao calls")
+                        .baseUnit("rows")
+                        .tag("implementation", implementation)
+                        .tag("method", method)
+                        .register(meterRegistry);
+            }
+
+            private int recordRows(Object result) {
+                int count;
+                if (result instanceof Collection<?> collection) {
+                    count = collection.size();
+                } else if (result instanceof Optional<?> optional) {
+                    count = optional.isPresent() ? 1 : 0;
+                } else if (result instanceof Integer affected) {
+                    count = affected;
+                } else {
+                    return 0;
+                }
+                rows.record(count);
+                return count;
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.aryancodes.metrics;
+
+public enum RequestPhase {
+    OTHER,
+    JWT,
+    USER_DETAILS,
+    DAO,
+    S3,
+    PASSWORD_HASH
+}
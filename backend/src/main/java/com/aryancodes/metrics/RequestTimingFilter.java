@@ -0,0 +1,79 @@
+package com.aryancodes.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds a {@link RequestTimings} context for the whole request, ahead of the
+ * security filter chain, and logs the phase breakdown when the request took
+ * longer than {@code request-timing.slow-threshold}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final long slowThresholdNanos;
+
+    public RequestTimingFilter(
+            @Value("${request-timing.slow-threshold:500ms}") Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long total = timings.finish();
+            if (total >= slowThresholdNanos) {
+                logSlowRequest(request, response, timings, total);
+            }
+        }
+    }
+
+    private void logSlowRequest(HttpServletRequest request,
+                                HttpServletResponse response,
+                                RequestTimings timings,
+                                long total) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(256)
+                .append("slow request method=").append(request.getMethod())
+                .append(" uri=").append(request.getRequestURI())
+                .append(" status=").append(response.getStatus())
+                .append(" total_ms=").append(millis(total));
+        for (RequestPhase phase : RequestPhase.values()) {
+            String name = phase.name().toLowerCase();
+            line.append(' ').append(name).append("_ms=").append(millis(timings.nanos(phase)));
+            if (phase != RequestPhase.OTHER) {
+                line.append(' ').append(name).append("_calls=").append(timings.calls(phase));
+            }
+        }
+        log.warn(line.toString());
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,97 @@
+package com.aryancodes.metrics;
+
+/**
+ * Per-thread breakdown of where a request spends its time. Phases nest:
+ * entering a phase pauses the enclosing one, so every nanosecond is charged
+ * to exactly one phase. Outside a request (no context bound) both
+ * {@link #enter(RequestPhase)} and {@link #exit(RequestPhase)} are no-ops.
+ *
+ * <pre>
+ * RequestPhase previous = RequestTimings.enter(RequestPhase.DAO);
+ * try {
+ *     ...
+ * } finally {
+ *     RequestTimings.exit(previous);
+ * }
+ * </pre>
+ */
+public final class RequestTimings {
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[PHASES.length];
+    private final int[] calls = new int[PHASES.length];
+    private RequestPhase current;
+    private long mark;
+    private long start;
+    private boolean active;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings begin() {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) {
+            timings = new RequestTimings();
+            CURRENT.set(timings);
+        }
+        timings.reset(System.nanoTime());
+        return timings;
+    }
+
+    public static RequestPhase enter(RequestPhase phase) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || !timings.active) {
+            return null;
+        }
+        long now = System.nanoTime();
+        RequestPhase previous = timings.current;
+        timings.nanos[previous.ordinal()] += now - timings.mark;
+        timings.calls[phase.ordinal()]++;
+        timings.current = phase;
+        timings.mark = now;
+        return previous;
+    }
+
+    public static void exit(RequestPhase previous) {
+        if (previous == null) {
+            return;
+        }
+        RequestTimings timings = CURRENT.get();
+        if (timings == null || !timings.active) {
+            return;
+        }
+        long now = System.nanoTime();
+        timings.nanos[timings.current.ordinal()] += now - timings.mark;
+        timings.current = previous;
+        timings.mark = now;
+    }
+
+    long finish() {
+        long now = System.nanoTime();
+        nanos[current.ordinal()] += now - mark;
+        mark = now;
+        active = false;
+        return now - start;
+    }
+
+    long nanos(RequestPhase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    int calls(RequestPhase phase) {
+        return calls[phase.ordinal()];
+    }
+
+    private void reset(long now) {
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = 0;
+            calls[i] = 0;
+        }
+        current = RequestPhase.OTHER;
+        start = now;
+        mark = now;
+        active = true;
+    }
+}
@@ -0,0 +1,139 @@
+package com.aryancodes.metrics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * In-process equivalent of {@code pg_stat_statements} for the statements we
+ * issue through {@code JdbcTemplate}: calls, total/max latency, rows and
+ * errors per distinct SQL text.
+ */
+@Component
+public class SqlStatementStatistics {
+
+    private final ConcurrentMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+
+    public int update(String sql, IntSupplier statement) {
+        StatementStats stats = stats(sql);
+        long start = System.nanoTime();
+        try {
+            int rows = statement.getAsInt();
+            stats.success(System.nanoTime() - start, rows);
+            return rows;
+        } catch (RuntimeException e) {
+            stats.failure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    public <T> List<T> query(String sql, Supplier<List<T>> statement) {
+        StatementStats stats = stats(sql);
+        long start = System.nanoTime();
+        try {
+            List<T> rows = statement.get();
+            stats.success(System.nanoTime() - start, rows.size());
+            return rows;
+        } catch (RuntimeException e) {
+            stats.failure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    public <T> T queryForObject(String sql, Supplier<T> statement) {
+        StatementStats stats = stats(sql);
+        long start = System.nanoTime();
+        try {
+            T row = statement.get();
+            stats.success(System.nanoTime() - start, row == null ? 0 : 1);
+            return row;
+        } catch (RuntimeException e) {
+            stats.failure(System.nanoTime() - start);
+            throw e;
+        }
+    }
+
+    public List<StatementSnapshot> snapshot() {
+        return statements.values()
+                .stream()
+                .map(StatementStats::snapshot)
+                .sorted(Comparator.comparingDouble(StatementSnapshot::totalMs).reversed())
+                .toList();
+    }
+
+    public void reset() {
+        statements.clear();
+    }
+
+    private StatementStats stats(String sql) {
+        StatementStats stats = statements.get(sql);
+        if (stats == null) {
+            stats = statements.computeIfAbsent(sql, StatementStats::new);
+        }
+        return stats;
+    }
+
+    public record StatementSnapshot(
+            String sql,
+            long calls,
+            double totalMs,
+            double meanMs,
+            double maxMs,
+            long rows,
+            long errors
+    ) {
+    }
+
+    private static final class StatementStats {
+
+        private final String sql;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private StatementStats(String sql) {
+            this.sql = sql.strip().replaceAll("\\s+", " ");
+        }
+
+        private void success(long nanos, int affected) {
+            record(nanos);
+            rows.add(affected);
+        }
+
+        private void failure(long nanos) {
+            record(nanos);
+            errors.increment();
+        }
+
+        private void record(long nanos) {
+            calls.increment();
+            totalNanos.add(nanos);
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        private StatementSnapshot snapshot() {
+            long count = calls.sum();
+            double totalMs = totalNanos.sum() / 1_000_000.0;
+            return new StatementSnapshot(
+                    sql,
+                    count,
+                    totalMs,
+                    count == 0 ? 0 : totalMs / count,
+                    maxNanos.get() / 1_000_000.0,
+                    rows.sum(),
+                    errors.sum()
+            );
+        }
+    }
+}
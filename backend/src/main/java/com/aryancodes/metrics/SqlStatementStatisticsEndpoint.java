@@ -0,0 +1,29 @@
+package com.aryancodes.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatementStatisticsEndpoint {
+
+    private final SqlStatementStatistics sqlStatementStatistics;
+
+    public SqlStatementStatisticsEndpoint(SqlStatementStatistics sqlStatementStatistics) {
+        this.sqlStatementStatistics = sqlStatementStatistics;
+    }
+
+    @ReadOperation
+    public List<SqlStatementStatistics.StatementSnapshot> statements() {
+        return sqlStatementStatistics.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatementStatistics.reset();
+    }
+}
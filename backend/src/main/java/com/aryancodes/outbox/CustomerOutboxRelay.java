@@ -0,0 +1,184 @@
+package com.aryancodes.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Polls {@code customer_outbox} for undelivered rows in batches and hands
+ * them to every {@link OutboxSubscriber} and the {@link OutboxSink}. A batch
+ * is claimed by leasing its rows for {@code outbox.relay.claim-timeout} in one
+ * statement ({@code FOR UPDATE SKIP LOCKED}), so several instances can relay
+ * concurrently without delivering the same row twice; ordering is only
+ * guaranteed within a batch.
+ * <p>
+ * Delivery runs outside any transaction, so a slow subscriber holds neither
+ * row locks nor a pool connection. The batch is then marked delivered, or
+ * released if delivery failed; a relay that dies in between leaves the lease
+ * to expire and the batch is delivered again. Delivered rows are pruned after
+ * {@code outbox.relay.retention}. A poll relays at most
+ * {@code outbox.relay.max-batches-per-poll} full batches, so a backlog
+ * doesn't keep the shared scheduler thread from other tasks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CustomerOutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerOutboxRelay.class);
+
+    private static final String CLAIM_SQL = """
+            UPDATE customer_outbox
+            SET claimed_until = now() + ? * INTERVAL '1 millisecond'
+            WHERE id IN (
+                SELECT id
+                FROM customer_outbox
+                WHERE delivered_at IS NULL
+                  AND (claimed_until IS NULL OR claimed_until < now())
+                ORDER BY id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id, customer_id, event_type, payload::text AS payload, created_at
+            """;
+    private static final String MARK_DELIVERED_SQL = """
+            UPDATE customer_outbox
+            SET delivered_at = now(), claimed_until = NULL
+            WHERE id = ANY(?)
+            """;
+    private static final String RELEASE_SQL = """
+            UPDATE customer_outbox
+            SET claimed_until = NULL
+            WHERE id = ANY(?)
+            """;
+    private static final String PRUNE_SQL = """
+            DELETE FROM customer_outbox
+            WHERE id IN (
+                SELECT id
+                FROM customer_outbox
+                WHERE delivered_at < ?
+                LIMIT ?
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<OutboxSubscriber> subscribers;
+    private final ObjectProvider<OutboxSink> sink;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Duration claimTimeout;
+    private final Duration retention;
+    private final Counter relayed;
+    private final Counter failures;
+    private final Timer batchTimer;
+
+    public CustomerOutboxRelay(JdbcTemplate jdbcTemplate,
+                               ObjectProvider<OutboxSubscriber> subscribers,
+                               ObjectProvider<OutboxSink> sink,
+                               MeterRegistry meterRegistry,
+                               @Value("${outbox.relay.batch-size:500}") int batchSize,
+                               @Value("${outbox.relay.max-batches-per-poll:20}") int maxBatchesPerPoll,
+                               @Value("${outbox.relay.claim-timeout:1m}") Duration claimTimeout,
+                               @Value("${outbox.relay.retention:1h}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.subscribers = subscribers;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.claimTimeout = claimTimeout;
+        this.retention = retention;
+        this.relayed = Counter.builder("outbox.events.relayed")
+                .description("Customer outbox events delivered")
+                .register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Customer outbox batches that failed and will be retried")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to claim, deliver and mark one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval:500ms}")
+    public void poll() {
+        try {
+            int batches = 0;
+            int batch;
+            do {
+                batch = relayBatch();
+                batches++;
+            } while (batch == batchSize && batches < maxBatchesPerPoll);
+        } catch (RuntimeException e) {
+            failures.increment();
+            log.warn("outbox relay failed, batch will be retried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Claims, delivers and marks one batch, each step in its own short
+     * statement.
+     *
+     * @return the number of events relayed
+     */
+    public int relayBatch() {
+        Integer count = batchTimer.record(() -> {
+            List<OutboxEvent> events = claim();
+            if (events.isEmpty()) {
+                return 0;
+            }
+
+            try {
+                subscribers.orderedStream().forEach(subscriber -> events.forEach(subscriber::onEvent));
+                sink.getIfAvailable(LoggingOutboxSink::new).deliver(events);
+            } catch (RuntimeException e) {
+                updateIds(RELEASE_SQL, events);
+                throw e;
+            }
+            updateIds(MARK_DELIVERED_SQL, events);
+            return events.size();
+        });
+        relayed.increment(count);
+        return count;
+    }
+
+    private List<OutboxEvent> claim() {
+        List<OutboxEvent> events = jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxEvent(
+                rs.getLong("id"),
+                rs.getLong("customer_id"),
+                rs.getString("event_type"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toInstant()
+        ), claimTimeout.toMillis(), batchSize);
+        // RETURNING doesn't keep the subquery's order
+        return events.stream().sorted(Comparator.comparingLong(OutboxEvent::id)).toList();
+    }
+
+    private void updateIds(String sql, List<OutboxEvent> events) {
+        Object[] ids = events.stream().map(OutboxEvent::id).toArray();
+        jdbcTemplate.update(sql, ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.prune-interval:1m}")
+    public int prune() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+        int pruned = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PRUNE_SQL, cutoff, batchSize * 10);
+            pruned += deleted;
+        } while (deleted == batchSize * 10);
+        return pruned;
+    }
+}
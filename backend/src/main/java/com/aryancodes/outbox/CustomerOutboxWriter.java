@@ -0,0 +1,126 @@
+package com.aryancodes.outbox;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns every {@link CustomerChangedEvent} into a {@code customer_outbox} row
+ * inside the transaction that made the change, so the row exists if and only
+ * if the change committed. Rows for one transaction are written as a single
+ * JDBC batch just before commit.
+ */
+@Component
+public class CustomerOutboxWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerOutboxWriter.class);
+
+    private static final String INSERT_SQL = """
+            INSERT INTO customer_outbox(customer_id, event_type, payload)
+            VALUES (?, ?, ?::jsonb)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CustomerOutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        Object[] row = row(event);
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.warn("customer {} {} outside a transaction, outbox row is not atomic with the change",
+                    event.customerId(), event.type());
+            jdbcTemplate.update(INSERT_SQL, row);
+            return;
+        }
+        pendingRows().add(row);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingRows() {
+        List<Object[]> rows = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (rows == null) {
+            List<Object[]> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CustomerOutboxWriter.this);
+                }
+            });
+            rows = pending;
+        }
+        return rows;
+    }
+
+    private Object[] row(CustomerChangedEvent event) {
+        Payload payload = new Payload(
+                event.type().name(),
+                event.customerId(),
+                PayloadCustomer.of(event.previous()),
+                PayloadCustomer.of(event.current())
+        );
+        try {
+            return new Object[]{
+                    event.customerId(),
+                    event.type().name(),
+                    objectMapper.writeValueAsString(payload)
+            };
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("failed to serialize outbox payload", e);
+        }
+    }
+
+    private record Payload(
+            String type,
+            Long customerId,
+            PayloadCustomer previous,
+            PayloadCustomer current
+    ) {
+    }
+
+    private record PayloadCustomer(
+            Long id,
+            String name,
+            String email,
+            Integer age,
+            Gender gender,
+            String profileImageId
+    ) {
+
+        static PayloadCustomer of(Customer customer) {
+            if (customer == null) {
+                return null;
+            }
+            return new PayloadCustomer(
+                    customer.getId(),
+                    customer.getName(),
+                    customer.getEmail(),
+                    customer.getAge(),
+                    customer.getGender(),
+                    customer.getProfileImageId()
+            );
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.aryancodes.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOutboxSink.class);
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        if (log.isDebugEnabled()) {
+            events.forEach(event -> log.debug("outbox event {} {} customer={} {}",
+                    event.id(), event.type(), event.customerId(), event.payload()));
+        }
+    }
+}
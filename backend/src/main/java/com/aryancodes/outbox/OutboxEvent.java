@@ -0,0 +1,17 @@
+package com.aryancodes.outbox;
+
+import java.time.Instant;
+
+/**
+ * A relayed outbox row. {@code payload} is the JSON written by
+ * {@link CustomerOutboxWriter}: the event type, customer id and the customer
+ * before and after the change, without the password.
+ */
+public record OutboxEvent(
+        long id,
+        Long customerId,
+        String type,
+        String payload,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,13 @@
+package com.aryancodes.outbox;
+
+import java.util.List;
+
+/**
+ * Where relayed batches go beyond the process (a broker, a webhook). A batch
+ * is only marked delivered once this returns; throwing leaves it for the next
+ * poll. Defaults to {@link LoggingOutboxSink} when no other bean is defined.
+ */
+public interface OutboxSink {
+
+    void deliver(List<OutboxEvent> events);
+}
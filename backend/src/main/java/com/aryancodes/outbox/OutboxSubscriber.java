@@ -0,0 +1,11 @@
+package com.aryancodes.outbox;
+
+/**
+ * In-process consumer of relayed outbox events. Delivery is at least once:
+ * an event is redelivered if the relay fails before marking its batch
+ * delivered, so implementations must be idempotent.
+ */
+public interface OutboxSubscriber {
+
+    void onEvent(OutboxEvent event);
+}
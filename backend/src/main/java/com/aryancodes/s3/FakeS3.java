@@ -9,6 +9,10 @@ import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.PutObjectResponse;
 
@@ -17,13 +21,30 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 
 public class FakeS3 implements S3Client {
 
     // TODO: Check if this works for Windows users
-    private static final String PATH =
+    private static final String DEFAULT_PATH =
             System.getProperty("user.home") + "/.aryancodes/s3";
 
+    private final String path;
+    // added to every get and put, to exercise callers against a slow store
+    private volatile Duration latency = Duration.ZERO;
+
+    public FakeS3() {
+        this(DEFAULT_PATH);
+    }
+
+    public FakeS3(String path) {
+        this.path = path;
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
     @Override
     public String serviceName() {
         return "fake";
@@ -38,6 +59,7 @@ public class FakeS3 implements S3Client {
     public PutObjectResponse putObject(PutObjectRequest putObjectRequest,
                                        RequestBody requestBody)
             throws AwsServiceException, SdkClientException {
+        delay();
         InputStream inputStream = requestBody.contentStreamProvider().newStream();
 
         try {
@@ -60,7 +82,7 @@ public class FakeS3 implements S3Client {
     public ResponseInputStream<GetObjectResponse> getObject(
             GetObjectRequest getObjectRequest)
             throws  AwsServiceException, SdkClientException {
-
+        delay();
         try {
             FileInputStream fileInputStream = new FileInputStream(
                     buildObjectFullPath(
@@ -72,11 +94,40 @@ public class FakeS3 implements S3Client {
                     fileInputStream
             );
         } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
+            throw NoSuchKeyException.builder()
+                    .statusCode(404)
+                    .message(getObjectRequest.key())
+                    .cause(e)
+                    .build();
+        }
+    }
+
+    @Override
+    public HeadBucketResponse headBucket(HeadBucketRequest headBucketRequest)
+            throws AwsServiceException, SdkClientException {
+        // buckets are created on first put, so only the root has to be usable
+        File bucket = new File(path, headBucketRequest.bucket());
+        if (!bucket.isDirectory() && !bucket.mkdirs()) {
+            throw NoSuchBucketException.builder()
+                    .message("cannot create " + bucket)
+                    .build();
+        }
+        return HeadBucketResponse.builder().build();
+    }
+
+    private void delay() {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw SdkClientException.create("interrupted", e);
         }
     }
 
     private String buildObjectFullPath(String bucketName, String key) {
-        return PATH + "/" + bucketName + "/" + key;
+        return path + "/" + bucketName + "/" + key;
     }
 }
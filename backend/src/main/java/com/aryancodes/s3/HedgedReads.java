@@ -0,0 +1,198 @@
+package com.aryancodes.s3;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Hedging for idempotent object-store reads. If the first attempt hasn't
+ * finished within the tracked {@code percentile} of recent successful attempt
+ * latencies (never less than {@code min-delay}), a second one is started and
+ * whichever succeeds first is used. Failed attempts are not sampled: they are
+ * often fast (throttling, a refused connection) and would pull the delay down
+ * just as the store gets into trouble.
+ * <p>
+ * Every read earns {@code budget-percent}/100 of a hedge and every hedge
+ * spends one, so hedges stay at that share of reads over time however slow
+ * the store gets. The losing attempt is not cancelled: the SDK call can't be
+ * interrupted safely, so it runs to completion and, since both attempts go
+ * through {@link ObjectStoreGuard}, keeps its bulkhead slot until then.
+ * {@code max-concurrent-calls} needs headroom for {@code budget-percent} more
+ * in-flight reads than callers.
+ */
+@Component
+public class HedgedReads implements DisposableBean {
+
+    // budget in thousandths of a hedge, so the per-read deposit stays integral
+    private static final long HEDGE_COST = 1000;
+    // allows a burst of this many hedges after a quiet period, no more
+    private static final long MAX_BUDGET = 10 * HEDGE_COST;
+
+    private final boolean enabled;
+    private final long minDelayNanos;
+    private final long deposit;
+    private final LatencyPercentile latencies;
+    private final AtomicLong budget = new AtomicLong(MAX_BUDGET);
+    private final AtomicInteger threads = new AtomicInteger();
+    private final ExecutorService executor;
+
+    private final Counter reads;
+    private final Counter hedges;
+    private final Counter budgetExhausted;
+    private final Counter primaryWins;
+    private final Counter hedgeWins;
+
+    public HedgedReads(MeterRegistry meterRegistry,
+                       @Value("${aws.s3.hedging.enabled:false}") boolean enabled,
+                       @Value("${aws.s3.hedging.percentile:0.95}") double percentile,
+                       @Value("${aws.s3.hedging.min-samples:100}") int minSamples,
+                       @Value("${aws.s3.hedging.min-delay:20ms}") Duration minDelay,
+                       @Value("${aws.s3.hedging.budget-percent:10}") int budgetPercent) {
+        this.enabled = enabled;
+        this.minDelayNanos = minDelay.toNanos();
+        this.deposit = HEDGE_COST * budgetPercent / 100;
+        this.latencies = new LatencyPercentile(percentile, minSamples);
+        // idle threads die off after a minute; concurrency is bounded by the guard's bulkhead
+        this.executor = enabled ? Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "s3-read-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+
+        this.reads = counter(meterRegistry, "s3.hedge.reads", "Object-store reads eligible for hedging");
+        this.hedges = counter(meterRegistry, "s3.hedge.sent", "Second attempts started for slow reads");
+        this.budgetExhausted = counter(meterRegistry, "s3.hedge.budget.exhausted",
+                "Slow reads not hedged because the hedge budget was spent");
+        this.primaryWins = Counter.builder("s3.hedge.wins")
+                .description("Hedged reads by the attempt that answered first")
+                .tag("attempt", "primary")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("s3.hedge.wins")
+                .description("Hedged reads by the attempt that answered first")
+                .tag("attempt", "hedge")
+                .register(meterRegistry);
+        Gauge.builder("s3.hedge.delay", this, hedged -> TimeUnit.NANOSECONDS.toMillis(hedged.delayNanos()))
+                .description("Time a read may take before it is hedged")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public <T> T read(Supplier<T> attempt) {
+        if (!enabled) {
+            return attempt.get();
+        }
+        reads.increment();
+        budget.accumulateAndGet(deposit, (current, add) -> Math.min(MAX_BUDGET, current + add));
+
+        CompletableFuture<T> primary = start(attempt);
+        try {
+            return primary.get(delayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // slow, hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.cancel(true);
+            throw new IllegalStateException("interrupted waiting for the object store", e);
+        }
+
+        if (!withdraw()) {
+            budgetExhausted.increment();
+            return await(primary);
+        }
+        hedges.increment();
+        CompletableFuture<T> hedge = start(attempt);
+
+        CompletableFuture<T> first = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        primary.whenComplete((result, error) -> settle(first, failures, result, error, primaryWins));
+        hedge.whenComplete((result, error) -> settle(first, failures, result, error, hedgeWins));
+        return await(first);
+    }
+
+    long delayNanos() {
+        return Math.max(minDelayNanos, latencies.nanos());
+    }
+
+    private <T> CompletableFuture<T> start(Supplier<T> attempt) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            T result = attempt.get();
+            latencies.record(System.nanoTime() - start);
+            return result;
+        }, executor);
+    }
+
+    // the first success wins; only when both attempts fail does the read fail, with the last error
+    private static <T> void settle(CompletableFuture<T> first,
+                                   AtomicInteger failures,
+                                   T result,
+                                   Throwable error,
+                                   Counter wins) {
+        if (error == null) {
+            if (first.complete(result)) {
+                wins.increment();
+            }
+        } else if (failures.incrementAndGet() == 2) {
+            first.completeExceptionally(error);
+        }
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < HEDGE_COST) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - HEDGE_COST));
+        return true;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted waiting for the object store", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name).description(description).register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
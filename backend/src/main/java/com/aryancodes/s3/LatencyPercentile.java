@@ -0,0 +1,52 @@
+package com.aryancodes.s3;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A percentile over the most recent {@value #WINDOW} latencies. Recording is
+ * a single array write; the percentile is recomputed by the recording thread
+ * every {@value #RECOMPUTE_EVERY} samples, so readers only see a volatile.
+ */
+final class LatencyPercentile {
+
+    static final int WINDOW = 1024;
+    static final int RECOMPUTE_EVERY = 64;
+
+    private final AtomicLongArray samples = new AtomicLongArray(WINDOW);
+    private final AtomicLong recorded = new AtomicLong();
+    private final double percentile;
+    private final int minSamples;
+    private volatile long nanos = Long.MAX_VALUE;
+
+    LatencyPercentile(double percentile, int minSamples) {
+        this.percentile = percentile;
+        this.minSamples = minSamples;
+    }
+
+    void record(long latencyNanos) {
+        long count = recorded.getAndIncrement() + 1;
+        samples.set((int) ((count - 1) % WINDOW), latencyNanos);
+        if (count >= minSamples && count % RECOMPUTE_EVERY == 0) {
+            recompute((int) Math.min(count, WINDOW));
+        }
+    }
+
+    /**
+     * @return the tracked percentile, or {@link Long#MAX_VALUE} until
+     * {@code minSamples} latencies have been recorded
+     */
+    long nanos() {
+        return nanos;
+    }
+
+    private void recompute(int size) {
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        nanos = sorted[(int) Math.min(size - 1, Math.ceil(percentile * size) - 1)];
+    }
+}
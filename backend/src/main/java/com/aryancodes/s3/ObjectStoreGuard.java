@@ -0,0 +1,218 @@
+package com.aryancodes.s3;
+
+import com.aryancodes.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker for object-store calls, so a slow or failing
+ * store costs callers a 503 instead of a request thread.
+ * <ul>
+ *     <li>At most {@code max-concurrent-calls} threads are inside the store at
+ *     once; others wait up to {@code max-wait} and are then rejected.</li>
+ *     <li>{@code failure-threshold} consecutive failures, where a call slower
+ *     than {@code slow-call-threshold} counts as one, open the circuit and
+ *     calls fail fast for {@code open-duration}.</li>
+ *     <li>After that a single trial call is let through (half-open): success
+ *     closes the circuit, failure opens it again.</li>
+ * </ul>
+ * 4xx answers such as a missing key are the caller's problem, not the
+ * store's, and count as successes.
+ */
+@Component
+public class ObjectStoreGuard {
+
+    private static final Logger log = LoggerFactory.getLogger(ObjectStoreGuard.class);
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final Semaphore bulkhead;
+    private final long maxWaitNanos;
+    private final int failureThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openedAt;
+
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final Counter slowCalls;
+
+    @Autowired
+    public ObjectStoreGuard(MeterRegistry meterRegistry,
+                            @Value("${aws.s3.resilience.max-concurrent-calls:10}") int maxConcurrentCalls,
+                            @Value("${aws.s3.resilience.max-wait:50ms}") Duration maxWait,
+                            @Value("${aws.s3.resilience.failure-threshold:5}") int failureThreshold,
+                            @Value("${aws.s3.resilience.slow-call-threshold:2s}") Duration slowCallThreshold,
+                            @Value("${aws.s3.resilience.open-duration:30s}") Duration openDuration) {
+        this(meterRegistry, maxConcurrentCalls, maxWait, failureThreshold, slowCallThreshold, openDuration,
+                System::nanoTime);
+    }
+
+    ObjectStoreGuard(MeterRegistry meterRegistry,
+                     int maxConcurrentCalls,
+                     Duration maxWait,
+                     int failureThreshold,
+                     Duration slowCallThreshold,
+                     Duration openDuration,
+                     LongSupplier nanoClock) {
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.maxWaitNanos = maxWait.toNanos();
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCallThreshold.toNanos();
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+
+        for (State value : State.values()) {
+            String tag = value.name().toLowerCase();
+            Gauge.builder("s3.circuit.state", state, current -> current.get() == value ? 1 : 0)
+                    .description("1 for the object-store circuit's current state")
+                    .tag("state", tag)
+                    .register(meterRegistry);
+            transitions.put(value, Counter.builder("s3.circuit.transitions")
+                    .description("Object-store circuit state changes, by the state entered")
+                    .tag("state", tag)
+                    .register(meterRegistry));
+        }
+        Gauge.builder("s3.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                .description("Object-store call slots not in use")
+                .register(meterRegistry);
+        this.bulkheadRejections = rejections(meterRegistry, "bulkhead");
+        this.circuitRejections = rejections(meterRegistry, "circuit");
+        this.slowCalls = Counter.builder("s3.calls.slow")
+                .description("Object-store calls over the slow-call threshold")
+                .register(meterRegistry);
+    }
+
+    State state() {
+        return state.get();
+    }
+
+    public <T> T call(Supplier<T> call) {
+        boolean probe = acquirePermission();
+        if (!enterBulkhead()) {
+            if (probe) {
+                probing.set(false);
+            }
+            bulkheadRejections.increment();
+            throw new ServiceUnavailableException("object store is busy", Duration.ofSeconds(1));
+        }
+        long start = nanoClock.getAsLong();
+        try {
+            T result = call.get();
+            boolean slow = nanoClock.getAsLong() - start > slowCallNanos;
+            if (slow) {
+                slowCalls.increment();
+            }
+            onResult(probe, !slow);
+            return result;
+        } catch (S3Exception e) {
+            onResult(probe, e.statusCode() >= 400 && e.statusCode() < 500);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            onResult(probe, false);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * @return true if this call is the half-open trial
+     */
+    private boolean acquirePermission() {
+        State current = state.get();
+        if (current == State.OPEN) {
+            long remaining = openNanos - (nanoClock.getAsLong() - openedAt);
+            if (remaining > 0) {
+                circuitRejections.increment();
+                throw new ServiceUnavailableException(
+                        "object store is unavailable", Duration.ofNanos(remaining));
+            }
+            transition(State.OPEN, State.HALF_OPEN);
+            current = state.get();
+        }
+        if (current == State.HALF_OPEN) {
+            if (!probing.compareAndSet(false, true)) {
+                circuitRejections.increment();
+                // the trial call is still running
+                throw new ServiceUnavailableException(
+                        "object store is unavailable", Duration.ofSeconds(1));
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private boolean enterBulkhead() {
+        try {
+            return bulkhead.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void onResult(boolean probe, boolean success) {
+        if (probe) {
+            if (success) {
+                consecutiveFailures.set(0);
+                transition(State.HALF_OPEN, State.CLOSED);
+            } else {
+                open(State.HALF_OPEN);
+            }
+            probing.set(false);
+        } else if (success) {
+            consecutiveFailures.set(0);
+        } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            open(State.CLOSED);
+        }
+    }
+
+    private void open(State from) {
+        // a late failure from a call started before the circuit opened must not extend it
+        if (state.get() == from) {
+            openedAt = nanoClock.getAsLong();
+            transition(from, State.OPEN);
+        }
+    }
+
+    private void transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            transitions.get(to).increment();
+            log.info("object store circuit {} -> {}", from, to);
+        }
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("s3.rejections")
+                .description("Object-store calls refused without reaching the store")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
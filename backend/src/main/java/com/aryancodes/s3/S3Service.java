@@ -1,6 +1,11 @@
 package com.aryancodes.s3;
 
-import org.springframework.beans.factory.annotation.Qualifier;
+import com.aryancodes.jfr.S3TransferEvent;
+import com.aryancodes.metrics.RequestPhase;
+import com.aryancodes.metrics.RequestTimings;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.core.sync.RequestBody;
@@ -10,15 +15,33 @@ import software.amazon.awssdk.services.s3.model.GetObjectResponse;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class S3Service {
 
     private final S3Client s3;
+    private final ObjectStoreGuard guard;
+    private final HedgedReads hedgedReads;
+    private final MeterRegistry meterRegistry;
+    private final Timer putTimer;
+    private final Timer getTimer;
+    private final DistributionSummary putBytes;
+    private final DistributionSummary getBytes;
 
-    public S3Service(S3Client s3) {
+    public S3Service(S3Client s3,
+                     ObjectStoreGuard guard,
+                     HedgedReads hedgedReads,
+                     MeterRegistry meterRegistry) {
         this.s3 = s3;
+        this.guard = guard;
+        this.hedgedReads = hedgedReads;
+        this.meterRegistry = meterRegistry;
+        this.putTimer = requestTimer(meterRegistry, "put");
+        this.getTimer = requestTimer(meterRegistry, "get");
+        this.putBytes = bytesSummary(meterRegistry, "put");
+        this.getBytes = bytesSummary(meterRegistry, "get");
     }
 
     public void putObject(String bucketName, String key, byte[] file) {
@@ -26,7 +49,23 @@ public class S3Service {
                 .bucket(bucketName)
                 .key(key)
                 .build();
-        s3.putObject(objectRequest, RequestBody.fromBytes(file));
+        RequestPhase previous = RequestTimings.enter(RequestPhase.S3);
+        S3TransferEvent event = new S3TransferEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            guard.call(() -> s3.putObject(objectRequest, RequestBody.fromBytes(file)));
+            putBytes.record(file.length);
+        } catch (RuntimeException e) {
+            failed = true;
+            countError("put", e);
+            throw e;
+        } finally {
+            putTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            RequestTimings.exit(previous);
+            commit(event, "put", bucketName, key, file.length, failed);
+        }
     }
 
     public byte[] getObject(String bucketName, String key) {
@@ -35,13 +74,71 @@ public class S3Service {
                 .key(key)
                 .build();
 
-        ResponseInputStream<GetObjectResponse> res = s3.getObject(getObjectRequest);
-
+        RequestPhase previous = RequestTimings.enter(RequestPhase.S3);
+        S3TransferEvent event = new S3TransferEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long transferred = 0;
+        boolean failed = false;
         try {
-            return res.readAllBytes();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            // the body is read inside the guard, a store that stalls mid-download holds a slot too
+            byte[] bytes = hedgedReads.read(() -> guard.call(() -> {
+                try (ResponseInputStream<GetObjectResponse> res = s3.getObject(getObjectRequest)) {
+                    return res.readAllBytes();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            transferred = bytes.length;
+            getBytes.record(bytes.length);
+            return bytes;
+        } catch (RuntimeException e) {
+            failed = true;
+            countError("get", e);
+            throw e;
+        } finally {
+            getTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            RequestTimings.exit(previous);
+            commit(event, "get", bucketName, key, transferred, failed);
+        }
+    }
+
+    private static void commit(S3TransferEvent event,
+                               String operation,
+                               String bucketName,
+                               String key,
+                               long bytes,
+                               boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.bucket = bucketName;
+            event.keyPrefix = S3TransferEvent.keyPrefix(key);
+            event.bytes = bytes;
+            event.failed = failed;
+            event.commit();
         }
+    }
+
+    private void countError(String operation, Exception e) {
+        meterRegistry.counter("s3.errors",
+                "operation", operation,
+                "exception", e.getClass().getSimpleName()
+        ).increment();
+    }
+
+    private static Timer requestTimer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("s3.requests")
+                .description("Time spent in object store calls")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
 
+    private static DistributionSummary bytesSummary(MeterRegistry meterRegistry, String operation) {
+        return DistributionSummary.builder("s3.bytes")
+                .description("Object sizes transferred to and from the object store")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,75 @@
+package com.aryancodes.security;
+
+import com.aryancodes.jfr.PasswordHashEvent;
+import com.aryancodes.metrics.RequestPhase;
+import com.aryancodes.metrics.RequestTimings;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Times {@code encode} and {@code matches} of the delegate, which for BCrypt
+ * are deliberately expensive and worth seeing next to the DAO timings.
+ */
+public class InstrumentedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public InstrumentedPasswordEncoder(PasswordEncoder delegate,
+                                       MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        RequestPhase previous = RequestTimings.enter(RequestPhase.PASSWORD_HASH);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            return encodeTimer.record(() -> delegate.encode(rawPassword));
+        } finally {
+            RequestTimings.exit(previous);
+            commit(event, "encode");
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        RequestPhase previous = RequestTimings.enter(RequestPhase.PASSWORD_HASH);
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.begin();
+        try {
+            Boolean matches = matchesTimer.record(
+                    () -> delegate.matches(rawPassword, encodedPassword)
+            );
+            return Boolean.TRUE.equals(matches);
+        } finally {
+            RequestTimings.exit(previous);
+            commit(event, "matches");
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private static void commit(PasswordHashEvent event, String operation) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.commit();
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("password.encoder.duration")
+                .description("Time spent hashing and verifying passwords")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
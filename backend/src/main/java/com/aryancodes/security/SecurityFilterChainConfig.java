@@ -2,14 +2,22 @@ package com.aryancodes.security;
 
 import com.aryancodes.jwt.JWTAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -18,6 +26,9 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityFilterChainConfig {
 
+    // actuator endpoints exposing SQL text, internal metrics, or able to record the process environment
+    static final String[] ADMIN_ENDPOINTS = {"metrics", "prometheus", "sqlstats", "jfr", "hibernatestats"};
+
     private final AuthenticationProvider authenticationProvider;
     private final JWTAuthenticationFilter jwtAuthenticationFilter;
     private final AuthenticationEntryPoint authenticationEntryPoint;
@@ -30,6 +41,43 @@ public class SecurityFilterChainConfig {
         this.authenticationEntryPoint = authenticationEntryPoint;
     }
 
+    /**
+     * Admin endpoints take HTTP Basic for the operator account in
+     * {@code management.admin}, never a customer JWT, since anyone can
+     * register for one. With no password hash configured they refuse
+     * every request.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain adminEndpointsFilterChain(HttpSecurity http,
+                                                         PasswordEncoder passwordEncoder,
+                                                         @Value("${management.admin.username:admin}") String username,
+                                                         @Value("${management.admin.password-hash:}") String passwordHash) throws Exception {
+        http
+                .securityMatcher(EndpointRequest.to(ADMIN_ENDPOINTS))
+                .csrf().disable()
+                .authorizeHttpRequests(authorize -> {
+                    if (passwordHash.isBlank()) {
+                        authorize.anyRequest().denyAll();
+                    } else {
+                        authorize.anyRequest().hasRole("ADMIN");
+                    }
+                })
+                .sessionManagement()
+                .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
+                .and()
+                .httpBasic(Customizer.withDefaults());
+        if (!passwordHash.isBlank()) {
+            DaoAuthenticationProvider adminProvider = new DaoAuthenticationProvider();
+            adminProvider.setPasswordEncoder(passwordEncoder);
+            adminProvider.setUserDetailsService(new InMemoryUserDetailsManager(
+                    User.withUsername(username).password(passwordHash).roles("ADMIN").build()
+            ));
+            http.authenticationManager(new ProviderManager(adminProvider));
+        }
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -45,6 +93,8 @@ public class SecurityFilterChainConfig {
                 .requestMatchers(
                         HttpMethod.GET,
                         "/ping",
+                        "/health/live",
+                        "/health/ready",
                         "/api/v1/customers/*/profile-image"
                 )
                 .permitAll()
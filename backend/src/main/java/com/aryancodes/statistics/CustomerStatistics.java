@@ -0,0 +1,26 @@
+package com.aryancodes.statistics;
+
+import com.aryancodes.customer.Gender;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+public record CustomerStatistics(
+        long total,
+        Map<Gender, Long> byGender,
+        List<AgeBucket> ageHistogram,
+        Instant reconciledAt
+) {
+
+    /**
+     * Customers aged {@code minAge} to {@code maxAge} inclusive; the last
+     * bucket has no {@code maxAge}.
+     */
+    public record AgeBucket(
+            int minAge,
+            Integer maxAge,
+            long count
+    ) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.aryancodes.statistics;
+
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("api/v1/customers/statistics")
+@CrossOrigin(origins = "*")
+public class CustomerStatisticsController {
+
+    private final CustomerStatisticsService customerStatisticsService;
+
+    public CustomerStatisticsController(CustomerStatisticsService customerStatisticsService) {
+        this.customerStatisticsService = customerStatisticsService;
+    }
+
+    @GetMapping
+    public CustomerStatistics getStatistics() {
+        return customerStatisticsService.getStatistics();
+    }
+}
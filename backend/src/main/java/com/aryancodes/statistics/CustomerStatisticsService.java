@@ -0,0 +1,220 @@
+package com.aryancodes.statistics;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.CustomerCount;
+import com.aryancodes.customer.CustomerDao;
+import com.aryancodes.customer.CustomerDaoSelection;
+import com.aryancodes.customer.Gender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Customer counts kept in memory and adjusted from {@link CustomerChangedEvent}s,
+ * so reading them never touches the database. LongAdders keep concurrent
+ * writers from contending on a single counter.
+ * <p>
+ * Writes that bypass the DAOs, or events lost to a crash, make the counters
+ * drift; {@link #reconcile()} corrects them from a grouped count on a schedule
+ * (and once at startup).
+ * <p>
+ * A write holds the read side of {@link #commitLock} from just before its
+ * commit until its events are applied. Reconcile takes the write side only
+ * while it reads the counters and opens its database snapshot, so every
+ * write is either in both or in neither, and is never counted twice.
+ */
+@Service
+public class CustomerStatisticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerStatisticsService.class);
+
+    static final int AGE_BUCKET_WIDTH = 10;
+    // 0-9 ... 90-99, then 100+
+    static final int AGE_BUCKETS = 11;
+
+    private final CustomerDao customerDao;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final ReadWriteLock commitLock = new ReentrantReadWriteLock();
+    private final LongAdder total = new LongAdder();
+    private final Map<Gender, LongAdder> byGender = new EnumMap<>(Gender.class);
+    private final LongAdder[] byAge = new LongAdder[AGE_BUCKETS];
+    private volatile Instant reconciledAt;
+
+    public CustomerStatisticsService(@Qualifier(CustomerDaoSelection.STATISTICS) CustomerDao customerDao,
+                                     JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager) {
+        this.customerDao = customerDao;
+        this.jdbcTemplate = jdbcTemplate;
+        // not read-only: the snapshot has to be the primary's
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        for (Gender gender : Gender.values()) {
+            byGender.put(gender, new LongAdder());
+        }
+        for (int i = 0; i < AGE_BUCKETS; i++) {
+            byAge[i] = new LongAdder();
+        }
+    }
+
+    public CustomerStatistics getStatistics() {
+        Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+        byGender.forEach((gender, count) -> genders.put(gender, count.sum()));
+
+        List<CustomerStatistics.AgeBucket> histogram = new ArrayList<>(AGE_BUCKETS);
+        for (int i = 0; i < AGE_BUCKETS; i++) {
+            int minAge = i * AGE_BUCKET_WIDTH;
+            Integer maxAge = i == AGE_BUCKETS - 1 ? null : minAge + AGE_BUCKET_WIDTH - 1;
+            histogram.add(new CustomerStatistics.AgeBucket(minAge, maxAge, byAge[i].sum()));
+        }
+
+        return new CustomerStatistics(total.sum(), genders, histogram, reconciledAt);
+    }
+
+    @EventListener
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Lock lock = commitLock.readLock();
+            lock.lock();
+            try {
+                apply(event);
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        pendingEvents().add(event);
+    }
+
+    @Scheduled(
+            initialDelayString = "${customer-statistics.initial-delay:0s}",
+            fixedDelayString = "${customer-statistics.reconcile-interval:10m}"
+    )
+    public void reconcile() {
+        snapshotTransaction.executeWithoutResult(status -> reconcileInSnapshot());
+    }
+
+    private void reconcileInSnapshot() {
+        // Adjust by (database - memory at the snapshot) rather than
+        // overwriting, so events committed after the snapshot are kept.
+        long totalBefore;
+        Map<Gender, Long> genderBefore = new EnumMap<>(Gender.class);
+        long[] ageBefore = new long[AGE_BUCKETS];
+        // takes a connection without starting the snapshot, so no writer
+        // blocked on the lock below can be holding the one we would need
+        jdbcTemplate.queryForObject("SHOW transaction_isolation", String.class);
+        Lock lock = commitLock.writeLock();
+        lock.lock();
+        try {
+            totalBefore = total.sum();
+            byGender.forEach((gender, count) -> genderBefore.put(gender, count.sum()));
+            for (int i = 0; i < AGE_BUCKETS; i++) {
+                ageBefore[i] = byAge[i].sum();
+            }
+            // a repeatable-read snapshot is taken by the first statement
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+        } finally {
+            lock.unlock();
+        }
+
+        long totalActual = 0;
+        Map<Gender, Long> genderActual = new EnumMap<>(Gender.class);
+        long[] ageActual = new long[AGE_BUCKETS];
+        for (CustomerCount count : customerDao.countCustomersByGenderAndAge()) {
+            totalActual += count.count();
+            genderActual.merge(count.gender(), count.count(), Long::sum);
+            ageActual[ageBucket(count.age())] += count.count();
+        }
+
+        long drift = totalActual - totalBefore;
+        total.add(drift);
+        for (Gender gender : Gender.values()) {
+            byGender.get(gender).add(genderActual.getOrDefault(gender, 0L) - genderBefore.get(gender));
+        }
+        for (int i = 0; i < AGE_BUCKETS; i++) {
+            byAge[i].add(ageActual[i] - ageBefore[i]);
+        }
+        reconciledAt = Instant.now();
+
+        if (drift != 0) {
+            log.info("customer statistics drifted by {} customers, reconciled to {}", drift, totalActual);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<CustomerChangedEvent> pendingEvents() {
+        List<CustomerChangedEvent> events = (List<CustomerChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            List<CustomerChangedEvent> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private Lock locked;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    locked = commitLock.readLock();
+                    locked.lock();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CustomerStatisticsService.this);
+                    try {
+                        if (status == STATUS_COMMITTED) {
+                            pending.forEach(CustomerStatisticsService.this::apply);
+                        }
+                    } finally {
+                        if (locked != null) {
+                            locked.unlock();
+                        }
+                    }
+                }
+            });
+            events = pending;
+        }
+        return events;
+    }
+
+    private void apply(CustomerChangedEvent event) {
+        if (event.previous() != null) {
+            apply(event.previous(), -1);
+        }
+        if (event.current() != null) {
+            apply(event.current(), 1);
+        }
+    }
+
+    private void apply(Customer customer, int delta) {
+        total.add(delta);
+        if (customer.getGender() != null) {
+            byGender.get(customer.getGender()).add(delta);
+        }
+        if (customer.getAge() != null) {
+            byAge[ageBucket(customer.getAge())].add(delta);
+        }
+    }
+
+    private static int ageBucket(int age) {
+        return Math.min(Math.max(age, 0) / AGE_BUCKET_WIDTH, AGE_BUCKETS - 1);
+    }
+}
@@ -0,0 +1,55 @@
+package com.aryancodes.typeahead;
+
+import com.aryancodes.customer.CustomerNameMatch;
+import com.aryancodes.customer.CustomerSearchRequest;
+import com.aryancodes.customer.CustomerService;
+import com.aryancodes.customer.CustomerSortField;
+import com.aryancodes.exception.RequestValidationException;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/customers/typeahead")
+@CrossOrigin(origins = "*")
+public class TypeaheadController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final TypeaheadIndex typeaheadIndex;
+    private final CustomerService customerService;
+
+    public TypeaheadController(TypeaheadIndex typeaheadIndex,
+                               CustomerService customerService) {
+        this.typeaheadIndex = typeaheadIndex;
+        this.customerService = customerService;
+    }
+
+    @GetMapping
+    public List<TypeaheadSuggestion> suggest(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new RequestValidationException(
+                    "limit must be between 1 and %s".formatted(MAX_LIMIT));
+        }
+        if (query.isBlank()) {
+            return List.of();
+        }
+        if (typeaheadIndex.isReady()) {
+            return typeaheadIndex.search(query, limit);
+        }
+        // still loading: a name prefix search is the closest the database can do cheaply
+        return customerService.searchCustomers(new CustomerSearchRequest(
+                        query, CustomerNameMatch.PREFIX, null, null, null,
+                        CustomerSortField.NAME, null, limit, null))
+                .customers()
+                .stream()
+                .map(customer -> new TypeaheadSuggestion(customer.id(), customer.name(), customer.email()))
+                .toList();
+    }
+}
@@ -0,0 +1,232 @@
+package com.aryancodes.typeahead;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process prefix index over customer names and emails.
+ * <p>
+ * The bulk of the data lives in an immutable {@link TypeaheadSegment} built
+ * from a streaming scan of the customer table at startup. Changes published
+ * by the DAOs go into a small delta keyed by id, which shadows the segment
+ * (a deleted customer is a tombstone in the delta). Once the delta grows past
+ * {@code typeahead.merge-threshold} it is folded into a new segment on a
+ * background thread; reads keep using the previous snapshot meanwhile.
+ */
+@Component
+public class TypeaheadIndex implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(TypeaheadIndex.class);
+
+    private static final String SCAN_SQL = """
+            SELECT id, name, email
+            FROM customer
+            """;
+    private static final Comparator<TypeaheadMatch> MATCH_ORDER = Comparator
+            .comparing(TypeaheadMatch::term)
+            .thenComparing(match -> match.suggestion().id());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int mergeThreshold;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "typeahead-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object writeLock = new Object();
+
+    private volatile Snapshot snapshot = new Snapshot(TypeaheadSegment.EMPTY, null, new ConcurrentHashMap<>());
+    private volatile boolean ready;
+    private boolean merging;
+
+    public TypeaheadIndex(DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${typeahead.scan-fetch-size:10000}") int fetchSize,
+                          @Value("${typeahead.merge-threshold:10000}") int mergeThreshold) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.mergeThreshold = mergeThreshold;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<TypeaheadSuggestion> search(String query, int limit) {
+        String prefix = TypeaheadTerms.normalize(query);
+        Snapshot current = snapshot;
+        Set<Long> seen = new HashSet<>();
+        List<TypeaheadMatch> matches = new ArrayList<>();
+
+        current.deltaMatches(prefix, seen, matches);
+        current.segment.search(prefix, limit, current::shadows, seen, matches);
+
+        matches.sort(MATCH_ORDER);
+        return matches.stream()
+                .limit(limit)
+                .map(TypeaheadMatch::suggestion)
+                .toList();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAsync() {
+        executor.execute(this::load);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        Customer customer = event.current();
+        DeltaEntry entry = customer == null
+                ? DeltaEntry.TOMBSTONE
+                : DeltaEntry.of(event.customerId(), customer.getName(), customer.getEmail());
+        boolean merge;
+        synchronized (writeLock) {
+            snapshot.delta.put(event.customerId(), entry);
+            merge = ready && !merging && snapshot.delta.size() >= mergeThreshold;
+            merging |= merge;
+        }
+        if (merge) {
+            executor.execute(this::merge);
+        }
+    }
+
+    void load() {
+        try {
+            loadSegment();
+        } catch (RuntimeException e) {
+            log.error("typeahead index failed to load, searches fall back to the database", e);
+        }
+    }
+
+    private void loadSegment() {
+        long start = System.nanoTime();
+        TypeaheadSegment.Builder builder = new TypeaheadSegment.Builder();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(SCAN_SQL, rs -> {
+            builder.add(rs.getLong("id"), rs.getString("name"), rs.getString("email"));
+        }));
+        TypeaheadSegment segment = builder.build();
+        synchronized (writeLock) {
+            // changes that arrived during the scan stay in the delta and shadow the segment
+            snapshot = new Snapshot(segment, null, snapshot.delta);
+        }
+        ready = true;
+        log.info("typeahead index loaded {} customers, {} terms in {} ms",
+                segment.customerCount(), segment.termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    void merge() {
+        Snapshot frozen;
+        synchronized (writeLock) {
+            frozen = new Snapshot(snapshot.segment, snapshot.delta, new ConcurrentHashMap<>());
+            snapshot = frozen;
+        }
+        try {
+            TypeaheadSegment.Builder builder = new TypeaheadSegment.Builder();
+            TypeaheadSegment segment = frozen.segment;
+            for (int customer = 0; customer < segment.customerCount(); customer++) {
+                long id = segment.id(customer);
+                if (!frozen.frozen.containsKey(id)) {
+                    builder.add(id, segment.name(customer), segment.email(customer));
+                }
+            }
+            frozen.frozen.forEach((id, entry) -> {
+                if (entry != DeltaEntry.TOMBSTONE) {
+                    builder.add(id, entry.suggestion.name(), entry.suggestion.email());
+                }
+            });
+            TypeaheadSegment merged = builder.build();
+            synchronized (writeLock) {
+                snapshot = new Snapshot(merged, null, snapshot.delta);
+            }
+        } finally {
+            synchronized (writeLock) {
+                merging = false;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * What a search sees: the segment, a delta being merged into the next
+     * segment (if any) and the live delta. Newer layers shadow older ones.
+     */
+    private record Snapshot(TypeaheadSegment segment,
+                            Map<Long, DeltaEntry> frozen,
+                            Map<Long, DeltaEntry> delta) {
+
+        boolean shadows(long id) {
+            return delta.containsKey(id) || (frozen != null && frozen.containsKey(id));
+        }
+
+        void deltaMatches(String prefix, Set<Long> seen, List<TypeaheadMatch> matches) {
+            addMatches(delta, prefix, seen, matches);
+            if (frozen != null) {
+                addMatches(frozen, prefix, seen, matches);
+            }
+        }
+
+        private static void addMatches(Map<Long, DeltaEntry> layer,
+                                       String prefix,
+                                       Set<Long> seen,
+                                       List<TypeaheadMatch> matches) {
+            layer.forEach((id, entry) -> {
+                if (!seen.add(id)) {
+                    return;
+                }
+                String term = entry.firstTermStartingWith(prefix);
+                if (term != null) {
+                    matches.add(new TypeaheadMatch(term, entry.suggestion));
+                }
+            });
+        }
+    }
+
+    private record DeltaEntry(TypeaheadSuggestion suggestion, List<String> terms) {
+
+        static final DeltaEntry TOMBSTONE = new DeltaEntry(null, List.of());
+
+        static DeltaEntry of(Long id, String name, String email) {
+            List<String> terms = new ArrayList<>(TypeaheadTerms.of(name, email));
+            terms.sort(null);
+            return new DeltaEntry(new TypeaheadSuggestion(id, name, email), List.copyOf(terms));
+        }
+
+        String firstTermStartingWith(String prefix) {
+            for (String term : terms) {
+                if (term.startsWith(prefix)) {
+                    return term;
+                }
+            }
+            return null;
+        }
+    }
+}
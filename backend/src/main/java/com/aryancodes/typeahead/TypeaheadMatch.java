@@ -0,0 +1,11 @@
+package com.aryancodes.typeahead;
+
+/**
+ * A suggestion together with the term it matched on, used to merge results
+ * from the segment and the delta in term order.
+ */
+record TypeaheadMatch(
+        String term,
+        TypeaheadSuggestion suggestion
+) {
+}
@@ -0,0 +1,296 @@
+package com.aryancodes.typeahead;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable, sorted term table held in a handful of primitive arrays rather
+ * than one object per customer or term:
+ * <ul>
+ *     <li>{@code terms}/{@code termOffsets}: UTF-8 terms back to back, sorted
+ *     by unsigned byte order (which is code point order)</li>
+ *     <li>{@code termCustomers}: for each term, the index of its customer</li>
+ *     <li>{@code ids}, {@code display}/{@code displayOffsets}: per customer,
+ *     the id and the UTF-8 name followed by the email</li>
+ * </ul>
+ */
+final class TypeaheadSegment {
+
+    static final TypeaheadSegment EMPTY = new Builder().build();
+
+    private final byte[] terms;
+    private final int[] termOffsets;
+    private final int[] termCustomers;
+    private final long[] ids;
+    private final byte[] display;
+    private final int[] displayOffsets;
+    private final int[] emailOffsets;
+
+    private TypeaheadSegment(byte[] terms,
+                             int[] termOffsets,
+                             int[] termCustomers,
+                             long[] ids,
+                             byte[] display,
+                             int[] displayOffsets,
+                             int[] emailOffsets) {
+        this.terms = terms;
+        this.termOffsets = termOffsets;
+        this.termCustomers = termCustomers;
+        this.ids = ids;
+        this.display = display;
+        this.displayOffsets = displayOffsets;
+        this.emailOffsets = emailOffsets;
+    }
+
+    int customerCount() {
+        return ids.length;
+    }
+
+    int termCount() {
+        return termCustomers.length;
+    }
+
+    long id(int customer) {
+        return ids[customer];
+    }
+
+    String name(int customer) {
+        return decode(display, displayOffsets[customer], emailOffsets[customer]);
+    }
+
+    String email(int customer) {
+        return decode(display, emailOffsets[customer], displayOffsets[customer + 1]);
+    }
+
+    /**
+     * Adds up to {@code limit} customers with a term starting with
+     * {@code prefix} to {@code matches}, in term order, skipping ids that
+     * are {@code shadowed} or already in {@code seen}.
+     */
+    void search(String prefix,
+                int limit,
+                LongPredicate shadowed,
+                Set<Long> seen,
+                List<TypeaheadMatch> matches) {
+        byte[] key = prefix.getBytes(StandardCharsets.UTF_8);
+        int found = 0;
+        for (int term = lowerBound(key); term < termCustomers.length && found < limit; term++) {
+            if (!startsWith(term, key)) {
+                break;
+            }
+            int customer = termCustomers[term];
+            long id = ids[customer];
+            if (shadowed.test(id) || !seen.add(id)) {
+                continue;
+            }
+            matches.add(new TypeaheadMatch(
+                    decode(terms, termOffsets[term], termOffsets[term + 1]),
+                    new TypeaheadSuggestion(id, name(customer), email(customer))
+            ));
+            found++;
+        }
+    }
+
+    private int lowerBound(byte[] key) {
+        int low = 0;
+        int high = termCustomers.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int compareTerm(int term, byte[] key) {
+        return Arrays.compareUnsigned(
+                terms, termOffsets[term], termOffsets[term + 1],
+                key, 0, key.length);
+    }
+
+    private boolean startsWith(int term, byte[] key) {
+        int start = termOffsets[term];
+        return termOffsets[term + 1] - start >= key.length
+                && Arrays.equals(terms, start, start + key.length, key, 0, key.length);
+    }
+
+    private static String decode(byte[] arena, int from, int to) {
+        return new String(arena, from, to - from, StandardCharsets.UTF_8);
+    }
+
+    static final class Builder {
+
+        private final ByteArena terms = new ByteArena();
+        private final IntArray termOffsets = new IntArray();
+        private final IntArray termCustomers = new IntArray();
+        private final LongArray ids = new LongArray();
+        private final ByteArena display = new ByteArena();
+        private final IntArray displayOffsets = new IntArray();
+        private final IntArray emailOffsets = new IntArray();
+
+        Builder() {
+            termOffsets.add(0);
+            displayOffsets.add(0);
+        }
+
+        Builder add(long id, String name, String email) {
+            int customer = ids.size();
+            ids.add(id);
+            display.add(name == null ? "" : name);
+            emailOffsets.add(display.size());
+            display.add(email == null ? "" : email);
+            displayOffsets.add(display.size());
+            for (String term : TypeaheadTerms.of(name, email)) {
+                terms.add(term);
+                termOffsets.add(terms.size());
+                termCustomers.add(customer);
+            }
+            return this;
+        }
+
+        TypeaheadSegment build() {
+            byte[] unsortedTerms = terms.toArray();
+            int[] unsortedOffsets = termOffsets.toArray();
+            int[] unsortedCustomers = termCustomers.toArray();
+
+            int count = unsortedCustomers.length;
+            int[] order = new int[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            mergeSort(order, (a, b) -> Arrays.compareUnsigned(
+                    unsortedTerms, unsortedOffsets[a], unsortedOffsets[a + 1],
+                    unsortedTerms, unsortedOffsets[b], unsortedOffsets[b + 1]));
+
+            byte[] sortedTerms = new byte[unsortedTerms.length];
+            int[] sortedOffsets = new int[count + 1];
+            int[] sortedCustomers = new int[count];
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                int term = order[i];
+                int length = unsortedOffsets[term + 1] - unsortedOffsets[term];
+                System.arraycopy(unsortedTerms, unsortedOffsets[term], sortedTerms, position, length);
+                position += length;
+                sortedOffsets[i + 1] = position;
+                sortedCustomers[i] = unsortedCustomers[term];
+            }
+
+            return new TypeaheadSegment(
+                    sortedTerms,
+                    sortedOffsets,
+                    sortedCustomers,
+                    ids.toArray(),
+                    display.toArray(),
+                    displayOffsets.toArray(),
+                    emailOffsets.toArray()
+            );
+        }
+
+        private static void mergeSort(int[] values, IntComparator comparator) {
+            int[] source = values;
+            int[] target = new int[values.length];
+            for (int width = 1; width < values.length; width *= 2) {
+                for (int low = 0; low < values.length; low += 2 * width) {
+                    int middle = Math.min(low + width, values.length);
+                    int high = Math.min(low + 2 * width, values.length);
+                    int left = low;
+                    int right = middle;
+                    int out = low;
+                    while (left < middle && right < high) {
+                        target[out++] = comparator.compare(source[left], source[right]) <= 0
+                                ? source[left++]
+                                : source[right++];
+                    }
+                    while (left < middle) {
+                        target[out++] = source[left++];
+                    }
+                    while (right < high) {
+                        target[out++] = source[right++];
+                    }
+                }
+                int[] swap = source;
+                source = target;
+                target = swap;
+            }
+            if (source != values) {
+                System.arraycopy(source, 0, values, 0, values.length);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    private static final class ByteArena {
+
+        private byte[] bytes = new byte[1024];
+        private int size;
+
+        void add(String text) {
+            byte[] encoded = text.getBytes(StandardCharsets.UTF_8);
+            ensureCapacity(size + encoded.length);
+            System.arraycopy(encoded, 0, bytes, size, encoded.length);
+            size += encoded.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+            }
+        }
+    }
+
+    private static final class IntArray {
+
+        private int[] values = new int[256];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    private static final class LongArray {
+
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.aryancodes.typeahead;
+
+public record TypeaheadSuggestion(
+        Long id,
+        String name,
+        String email
+) {
+}
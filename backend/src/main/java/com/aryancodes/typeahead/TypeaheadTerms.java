@@ -0,0 +1,40 @@
+package com.aryancodes.typeahead;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Terms a customer can be found by: the whole name, every later word of the
+ * name (the first word is already a prefix of the whole name) and the email.
+ */
+final class TypeaheadTerms {
+
+    private TypeaheadTerms() {
+    }
+
+    static List<String> of(String name, String email) {
+        String normalized = normalize(name);
+        List<String> terms = new ArrayList<>(4);
+        if (!normalized.isEmpty()) {
+            terms.add(normalized);
+            String[] words = normalized.split(" ");
+            for (int i = 1; i < words.length; i++) {
+                terms.add(words[i]);
+            }
+        }
+        if (email != null && !email.isBlank()) {
+            terms.add(email.trim().toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim()
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- name prefix search: lower(name) LIKE 'abc%'
+CREATE INDEX customer_lower_name_pattern_idx
+ON customer (lower(name) text_pattern_ops);
+
+-- name substring search: lower(name) LIKE '%abc%'
+CREATE INDEX customer_lower_name_trgm_idx
+ON customer USING gin (lower(name) gin_trgm_ops);
+
+-- keyset pagination when sorting by name
+CREATE INDEX customer_name_id_idx
+ON customer (name, id);
+
+-- age range filters and keyset pagination when sorting by age
+CREATE INDEX customer_age_id_idx
+ON customer (age, id);
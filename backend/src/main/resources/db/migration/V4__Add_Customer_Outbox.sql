@@ -0,0 +1,18 @@
+CREATE TABLE customer_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    customer_id BIGINT NOT NULL,
+    event_type TEXT NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    delivered_at TIMESTAMPTZ
+);
+
+-- relay polls undelivered rows in id order
+CREATE INDEX customer_outbox_undelivered_idx
+ON customer_outbox (id)
+WHERE delivered_at IS NULL;
+
+-- pruning of delivered rows
+CREATE INDEX customer_outbox_delivered_at_idx
+ON customer_outbox (delivered_at)
+WHERE delivered_at IS NOT NULL;
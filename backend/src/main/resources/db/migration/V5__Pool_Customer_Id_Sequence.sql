@@ -0,0 +1,4 @@
+-- JPA hands out ids from blocks of 50 (pooled optimizer, allocationSize = 50),
+-- one nextval per block. Plain INSERTs still take a single nextval each, so
+-- ids from the JDBC path now step by 50; they never collide with a JPA block.
+ALTER SEQUENCE customer_id_seq INCREMENT BY 50;
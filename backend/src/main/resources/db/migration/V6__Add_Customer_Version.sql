@@ -0,0 +1,21 @@
+-- One sequence for the whole table, so max(version) moves on every insert and
+-- update anywhere in it; together with count(*) that also catches deletes.
+CREATE SEQUENCE customer_version_seq;
+
+ALTER TABLE customer
+    ADD COLUMN version BIGINT NOT NULL DEFAULT nextval('customer_version_seq');
+
+CREATE FUNCTION customer_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW.version := nextval('customer_version_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER customer_bump_version
+    BEFORE UPDATE ON customer
+    FOR EACH ROW
+    EXECUTE FUNCTION customer_bump_version();
+
+-- lets max(version) be answered from the end of the index
+CREATE INDEX customer_version_idx ON customer (version);
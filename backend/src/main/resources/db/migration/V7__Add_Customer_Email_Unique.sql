@@ -0,0 +1,5 @@
+-- Registration and email changes rely on this instead of checking first:
+-- inserts use ON CONFLICT (email) DO NOTHING, updates surface 23505.
+-- Fails if the table already holds duplicate emails; resolve those first.
+ALTER TABLE customer
+    ADD CONSTRAINT customer_email_unique UNIQUE (email);
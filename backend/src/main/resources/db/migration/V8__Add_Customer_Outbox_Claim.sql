@@ -0,0 +1,2 @@
+-- a relay's lease on rows it is delivering; expired leases are claimed again
+ALTER TABLE customer_outbox ADD COLUMN claimed_until TIMESTAMPTZ;
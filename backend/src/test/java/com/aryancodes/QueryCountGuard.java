@@ -0,0 +1,59 @@
+package com.aryancodes;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fails a test when a call issues more JDBC statements through Hibernate than
+ * expected. The persistence context is flushed and cleared before the call so
+ * nothing is served from the first-level cache, and flushed again afterwards
+ * so pending inserts and updates are counted. Outside a transaction there is
+ * nothing to flush and each repository call runs in its own.
+ */
+public class QueryCountGuard {
+
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    public QueryCountGuard(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public void assertMaxStatements(long max, Runnable call) {
+        assertMaxStatements(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    public <T> T assertMaxStatements(long max, Supplier<T> call) {
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        statistics.clear();
+
+        T result = call.get();
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+
+        long actual = statistics.getPrepareStatementCount();
+        assertThat(actual)
+                .as("JDBC statements issued (queries: %s, entity loads: %s, updates: %s)",
+                        statistics.getQueryExecutionCount(),
+                        statistics.getEntityLoadCount(),
+                        statistics.getEntityUpdateCount())
+                .isLessThanOrEqualTo(max);
+        return result;
+    }
+}
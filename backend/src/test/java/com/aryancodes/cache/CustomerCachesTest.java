@@ -0,0 +1,56 @@
+package com.aryancodes.cache;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomerCachesTest {
+
+    private CacheManager cacheManager;
+    private CustomerCaches underTest;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CustomerCaches.CUSTOMERS, CustomerCaches.PRINCIPALS);
+        underTest = new CustomerCaches(cacheManager);
+        cacheManager.getCache(CustomerCaches.CUSTOMERS).put(1L, "alex");
+        cacheManager.getCache(CustomerCaches.CUSTOMERS).put(2L, "jamila");
+        cacheManager.getCache(CustomerCaches.PRINCIPALS).put("old@gmail.com", "alex");
+        cacheManager.getCache(CustomerCaches.PRINCIPALS).put("jamila@gmail.com", "jamila");
+    }
+
+    @Test
+    void emailChangeEvictsIdAndBothEmails() {
+        // Given
+        Customer previous = new Customer(1L, "Alex", "old@gmail.com", "password", 19, Gender.MALE);
+        Customer current = new Customer(1L, "Alex", "new@gmail.com", "password", 19, Gender.MALE);
+
+        // When
+        CustomerInvalidationPublisher.messages(CustomerChangedEvent.updated(previous, current))
+                .forEach(underTest::evict);
+
+        // Then
+        assertThat(CustomerInvalidationPublisher.messages(CustomerChangedEvent.updated(previous, current)))
+                .containsExactly("id:1", "email:old@gmail.com", "email:new@gmail.com");
+        assertThat(cacheManager.getCache(CustomerCaches.CUSTOMERS).get(1L)).isNull();
+        assertThat(cacheManager.getCache(CustomerCaches.PRINCIPALS).get("old@gmail.com")).isNull();
+        assertThat(cacheManager.getCache(CustomerCaches.CUSTOMERS).get(2L)).isNotNull();
+        assertThat(cacheManager.getCache(CustomerCaches.PRINCIPALS).get("jamila@gmail.com")).isNotNull();
+    }
+
+    @Test
+    void unknownMessageFlushesEverything() {
+        // When
+        underTest.evict("id:not-a-number");
+
+        // Then
+        assertThat(cacheManager.getCache(CustomerCaches.CUSTOMERS).get(2L)).isNull();
+        assertThat(cacheManager.getCache(CustomerCaches.PRINCIPALS).get("jamila@gmail.com")).isNull();
+    }
+}
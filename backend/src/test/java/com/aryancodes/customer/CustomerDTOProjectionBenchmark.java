@@ -0,0 +1,100 @@
+package com.aryancodes.customer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps a page of customer rows to {@link CustomerDTO}s the old way
+ * ({@link CustomerRowMapper} then {@link CustomerDTOMapper}) and through
+ * {@link CustomerDTORowMapper}. The result set decodes each string column
+ * from bytes on every read like the Postgres driver does, so the password
+ * column costs what it costs in production. Run with {@code main} (adds
+ * {@code -prof gc}) to see allocation per operation next to latency.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerDTOProjectionBenchmark {
+
+    @Param({"1", "1000"})
+    int rows;
+
+    private final CustomerRowMapper customerRowMapper = new CustomerRowMapper();
+    private final CustomerDTOMapper customerDTOMapper = new CustomerDTOMapper();
+    private final CustomerDTORowMapper customerDTORowMapper = new CustomerDTORowMapper();
+    private ResultSet resultSet;
+
+    @Setup
+    public void setUp() {
+        Map<String, byte[]> row = Map.of(
+                "name", bytes("Jamila Ahmed"),
+                "email", bytes("jamila.ahmed@aryancodes.com"),
+                "password", bytes("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3mKNpkRgCjV1kPwrZ5ZAd9a"),
+                "gender", bytes("FEMALE"),
+                "profile_image_id", bytes("3f2c1d0e-8b7a-4c6d-9e5f-1a2b3c4d5e6f")
+        );
+        resultSet = (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getLong" -> 42L;
+                    case "getInt" -> 31;
+                    case "getString" -> new String(row.get((String) args[0]), StandardCharsets.UTF_8);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Benchmark
+    public List<CustomerDTO> entityThenMapper() throws SQLException {
+        List<CustomerDTO> customers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            customers.add(customerDTOMapper.apply(customerRowMapper.mapRow(resultSet, i)));
+        }
+        return customers;
+    }
+
+    @Benchmark
+    public List<CustomerDTO> projection() throws SQLException {
+        List<CustomerDTO> customers = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            customers.add(customerDTORowMapper.mapRow(resultSet, i));
+        }
+        return customers;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CustomerDTOProjectionBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,68 @@
+package com.aryancodes.customer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerDTORowMapperTest {
+
+    @Test
+    void mapRow() throws SQLException {
+        // Given
+        CustomerDTORowMapper customerDTORowMapper = new CustomerDTORowMapper();
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getInt("age")).thenReturn(19);
+        when(resultSet.getString("name")).thenReturn("Jamila");
+        when(resultSet.getString("email")).thenReturn("jamila@gmail.com");
+        when(resultSet.getString("gender")).thenReturn("FEMALE");
+        when(resultSet.getString("profile_image_id")).thenReturn("22222");
+
+        // When
+        CustomerDTO actual = customerDTORowMapper.mapRow(resultSet, 1);
+
+        // Then
+        CustomerDTO expected = new CustomerDTO(
+                1L,
+                "Jamila",
+                "jamila@gmail.com",
+                Gender.FEMALE,
+                19,
+                List.of("ROLE_USER"),
+                "jamila@gmail.com",
+                "22222"
+        );
+        assertThat(actual).isEqualTo(expected);
+        verify(resultSet, never()).getString("password");
+    }
+
+    @Test
+    void mapRowForFields() throws SQLException {
+        // Given
+        RowMapper<CustomerDTO> underTest = new CustomerDTORowMapper()
+                .forFields(CustomerFields.of(CustomerField.NAME, CustomerField.ROLES));
+
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getString("name")).thenReturn("Jamila");
+
+        // When
+        CustomerDTO actual = underTest.mapRow(resultSet, 1);
+
+        // Then
+        assertThat(actual).isEqualTo(new CustomerDTO(
+                1L, "Jamila", null, null, null, List.of("ROLE_USER"), null, null));
+        verify(resultSet, never()).getString("email");
+        verify(resultSet, never()).getString("gender");
+    }
+}
@@ -0,0 +1,66 @@
+package com.aryancodes.customer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerDaoSelectionTest {
+
+    private DefaultListableBeanFactory registry;
+    private MockEnvironment environment;
+    private CustomerDaoSelection underTest;
+
+    @BeforeEach
+    void setUp() {
+        registry = new DefaultListableBeanFactory();
+        registry.registerBeanDefinition("jdbc", new RootBeanDefinition(CustomerJDBCDataAccessService.class));
+        registry.registerBeanDefinition("jpa", new RootBeanDefinition(CustomerJPADataAccessService.class));
+        registry.registerBeanDefinition("list", new RootBeanDefinition(CustomerListDataAccessService.class));
+        environment = new MockEnvironment();
+        underTest = new CustomerDaoSelection();
+        underTest.setEnvironment(environment);
+    }
+
+    @Test
+    void defaultsKeepTheOriginalWiring() {
+        // When
+        underTest.postProcessBeanDefinitionRegistry(registry);
+
+        // Then
+        assertThat(registry.getAliases("jdbc"))
+                .containsExactlyInAnyOrder(CustomerDaoSelection.CUSTOMER_SERVICE, CustomerDaoSelection.STATISTICS);
+        assertThat(registry.getAliases("jpa")).containsExactly(CustomerDaoSelection.USER_DETAILS);
+    }
+
+    @Test
+    void eachConsumerCanBePointedElsewhere() {
+        // Given
+        environment.setProperty("customer.dao.customer-service", "list");
+        environment.setProperty("customer.dao.user-details", "jdbc");
+
+        // When
+        underTest.postProcessBeanDefinitionRegistry(registry);
+
+        // Then
+        assertThat(registry.getAliases("list")).containsExactly(CustomerDaoSelection.CUSTOMER_SERVICE);
+        assertThat(registry.getAliases("jdbc"))
+                .containsExactlyInAnyOrder(CustomerDaoSelection.USER_DETAILS, CustomerDaoSelection.STATISTICS);
+    }
+
+    @Test
+    void unknownImplementationFailsStartup() {
+        // Given
+        environment.setProperty("customer.dao.customer-service", "mongo");
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.postProcessBeanDefinitionRegistry(registry))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("customer.dao.customer-service is [mongo] but there is no CustomerDao with that name");
+    }
+}
@@ -0,0 +1,182 @@
+package com.aryancodes.customer;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Drives one {@link CustomerDao} with the mix of calls the API makes for a
+ * register / login / list / get / update / delete workload. Each worker only
+ * touches the customers it registered itself, so implementations can be run
+ * back to back against the same database. Writes run in their own
+ * transaction the way {@link CustomerService} issues them, reads in a
+ * read-only one.
+ */
+final class CustomerDaoWorkload {
+
+    enum Operation {
+        REGISTER(10),
+        LOGIN(30),
+        LIST(5),
+        GET(35),
+        UPDATE(15),
+        DELETE(5);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final Operation[] MIX = mix();
+
+    private final CustomerDao customerDao;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+
+    CustomerDaoWorkload(CustomerDao customerDao, PlatformTransactionManager transactionManager) {
+        this.customerDao = customerDao;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder("workload")
+                    .tag("operation", operation.name())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry));
+        }
+    }
+
+    Result run(String implementation, int threads, int operationsPerThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> worker(operationsPerThread)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            return new Result(implementation, threads * operationsPerThread, elapsed, timers);
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void worker(int operations) {
+        List<Customer> own = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < operations; i++) {
+            Operation operation = own.isEmpty() ? Operation.REGISTER : MIX[random.nextInt(MIX.length)];
+            switch (operation) {
+                case REGISTER -> own.add(time(operation, () -> register()));
+                case LOGIN -> time(operation, () -> read(() ->
+                        customerDao.selectUserByEmail(pick(own, random).getEmail())));
+                case LIST -> time(operation, () -> read(customerDao::selectAllCustomers));
+                case GET -> time(operation, () -> read(() ->
+                        customerDao.selectCustomerById(pick(own, random).getId())));
+                case UPDATE -> time(operation, () -> write(() -> {
+                    Customer customer = pick(own, random);
+                    customerDao.updateCustomer(new Customer(
+                            customer.getId(),
+                            customer.getName(),
+                            customer.getEmail(),
+                            customer.getPassword(),
+                            random.nextInt(18, 90),
+                            customer.getGender()));
+                    return null;
+                }));
+                case DELETE -> time(operation, () -> write(() ->
+                        customerDao.deleteCustomerById(own.remove(own.size() - 1).getId())));
+            }
+        }
+    }
+
+    private Customer register() {
+        Customer customer = new Customer(
+                "Workload",
+                "workload-" + UUID.randomUUID() + "@aryancodes.com",
+                "password",
+                ThreadLocalRandom.current().nextInt(18, 90),
+                Gender.FEMALE);
+        return write(() -> {
+            if (!customerDao.existsCustomerWithEmail(customer.getEmail())) {
+                customerDao.insertCustomer(customer);
+            }
+            return customer;
+        });
+    }
+
+    private <T> T read(Supplier<T> call) {
+        return readTransaction.execute(status -> call.get());
+    }
+
+    private <T> T write(Supplier<T> call) {
+        return writeTransaction.execute(status -> call.get());
+    }
+
+    private <T> T time(Operation operation, Supplier<T> call) {
+        return timers.get(operation).record(call);
+    }
+
+    private static Customer pick(List<Customer> customers, ThreadLocalRandom random) {
+        return customers.get(random.nextInt(customers.size()));
+    }
+
+    private static Operation[] mix() {
+        List<Operation> mix = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            for (int i = 0; i < operation.weight; i++) {
+                mix.add(operation);
+            }
+        }
+        return mix.toArray(Operation[]::new);
+    }
+
+    record Result(String implementation, int operations, Duration elapsed, Map<Operation, Timer> timers) {
+
+        double throughput() {
+            return operations / (elapsed.toNanos() / 1e9);
+        }
+
+        static String table(List<Result> results) {
+            StringBuilder table = new StringBuilder(String.format("%-10s %-9s %8s %10s %10s %10s%n",
+                    "dao", "operation", "count", "p50 ms", "p95 ms", "p99 ms"));
+            for (Result result : results) {
+                table.append(String.format("%-10s %-9s %8d ops in %d ms (%.0f ops/s)%n",
+                        result.implementation(), "ALL", result.operations(),
+                        result.elapsed().toMillis(), result.throughput()));
+                result.timers().forEach((operation, timer) -> {
+                    ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+                    table.append(String.format("%-10s %-9s %8d %10.2f %10.2f %10.2f%n",
+                            result.implementation(), operation, timer.count(),
+                            percentiles[0].value(TimeUnit.MILLISECONDS),
+                            percentiles[1].value(TimeUnit.MILLISECONDS),
+                            percentiles[2].value(TimeUnit.MILLISECONDS)));
+                });
+            }
+            return table.toString();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.AbstractTestcontainers;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the same mixed workload against every {@link CustomerDao} bean in the
+ * context and logs throughput and latency percentiles side by side. New
+ * implementations are picked up without touching this test. Runs with the
+ * integration tests, not {@code mvn test}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class CustomerDaoWorkloadIT extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerDaoWorkloadIT.class);
+
+    private static final int THREADS = 4;
+    private static final int WARMUP_OPERATIONS = 200;
+    private static final int OPERATIONS = 2_000;
+
+    @Autowired
+    private Map<String, CustomerDao> customerDaos;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareImplementations() throws Exception {
+        // Given
+        List<CustomerDaoWorkload.Result> results = new ArrayList<>();
+
+        // When
+        for (Map.Entry<String, CustomerDao> entry : new TreeMap<>(customerDaos).entrySet()) {
+            new CustomerDaoWorkload(entry.getValue(), transactionManager)
+                    .run(entry.getKey(), THREADS, WARMUP_OPERATIONS);
+            results.add(new CustomerDaoWorkload(entry.getValue(), transactionManager)
+                    .run(entry.getKey(), THREADS, OPERATIONS));
+        }
+
+        // Then
+        log.info("customer dao workload:\n{}", CustomerDaoWorkload.Result.table(results));
+        assertThat(results)
+                .extracting(CustomerDaoWorkload.Result::implementation)
+                .contains("jdbc", "jpa", "list");
+        assertThat(results).allSatisfy(result ->
+                assertThat(result.operations()).isEqualTo(THREADS * OPERATIONS));
+    }
+}
@@ -0,0 +1,43 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.exception.RequestValidationException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CustomerFieldsTest {
+
+    @Test
+    void missingOrBlankMeansAll() {
+        assertThat(CustomerFields.parse(null)).isSameAs(CustomerFields.ALL);
+        assertThat(CustomerFields.parse(" ")).isSameAs(CustomerFields.ALL);
+    }
+
+    @Test
+    void selectsIdPlusTheColumnsOfRequestedFields() {
+        // When
+        CustomerFields actual = CustomerFields.parse("name, username,roles");
+
+        // Then
+        assertThat(actual.isAll()).isFalse();
+        assertThat(actual.contains(CustomerField.NAME)).isTrue();
+        assertThat(actual.contains(CustomerField.EMAIL)).isFalse();
+        assertThat(actual.columns()).isEqualTo("id, name, email");
+        assertThat(actual).isEqualTo(CustomerFields.of(CustomerField.ROLES, CustomerField.USERNAME, CustomerField.NAME));
+    }
+
+    @Test
+    void keyDiffersPerFieldset() {
+        assertThat(CustomerFields.parse("id,name").key())
+                .isNotEqualTo(CustomerFields.parse("id").key())
+                .isNotEqualTo(CustomerFields.ALL.key());
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertThatThrownBy(() -> CustomerFields.parse("id,password"))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("unknown customer field [password]");
+    }
+}
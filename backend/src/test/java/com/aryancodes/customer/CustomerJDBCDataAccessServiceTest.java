@@ -1,14 +1,17 @@
 package com.aryancodes.customer;
 
 import com.aryancodes.AbstractTestcontainers;
+import com.aryancodes.metrics.SqlStatementStatistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class CustomerJDBCDataAccessServiceTest extends AbstractTestcontainers {
 
@@ -19,7 +22,11 @@ class CustomerJDBCDataAccessServiceTest extends AbstractTestcontainers {
     void setUp() {
         underTest = new CustomerJDBCDataAccessService(
                 getJdbcTemplate(),
-                customerRowMapper
+                customerRowMapper,
+                new CustomerDTORowMapper(),
+                new SqlStatementStatistics(),
+                event -> {
+                }
         );
     }
 
@@ -71,6 +78,172 @@ class CustomerJDBCDataAccessServiceTest extends AbstractTestcontainers {
         });
     }
 
+    @Test
+    void insertCustomersSetsGeneratedIdsInOrder() {
+        // Given
+        List<Customer> customers = List.of(
+                new Customer(FAKER.name().fullName(),
+                        FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                        "password", 20, Gender.MALE),
+                new Customer(FAKER.name().fullName(),
+                        FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                        "password", 31, Gender.FEMALE)
+        );
+
+        // When
+        underTest.insertCustomers(customers);
+
+        // Then
+        for (Customer customer : customers) {
+            assertThat(underTest.selectCustomerById(customer.getId()))
+                    .hasValueSatisfying(c -> assertThat(c.getEmail()).isEqualTo(customer.getEmail()));
+        }
+    }
+
+    @Test
+    void insertCustomerWithTakenEmailInsertsNothing() {
+        // Given
+        String email = FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID();
+        underTest.insertCustomer(new Customer("Alex", email, "password", 20, Gender.MALE));
+        int before = underTest.selectAllCustomers().size();
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.insertCustomer(
+                new Customer("Jamila", email, "password", 25, Gender.FEMALE)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(underTest.selectAllCustomers()).hasSize(before);
+    }
+
+    @Test
+    void updateCustomerToTakenEmailThrows() {
+        // Given
+        String taken = FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID();
+        underTest.insertCustomer(new Customer("Alex", taken, "password", 20, Gender.MALE));
+        Customer customer = new Customer("Jamila",
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 25, Gender.FEMALE);
+        underTest.insertCustomer(customer);
+
+        Customer update = new Customer();
+        update.setId(customer.getId());
+        update.setEmail(taken);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.updateCustomer(update))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void selectCustomerDTOById() {
+        // Given
+        Customer customer = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 20,
+                Gender.MALE);
+        underTest.insertCustomer(customer);
+
+        // When
+        Optional<CustomerDTO> actual = underTest.selectCustomerDTOById(customer.getId(), CustomerFields.ALL);
+
+        // Then
+        assertThat(actual).contains(new CustomerDTO(
+                customer.getId(),
+                customer.getName(),
+                customer.getEmail(),
+                Gender.MALE,
+                20,
+                null));
+    }
+
+    @Test
+    void selectCustomerDTOByIdReadsOnlyRequestedFields() {
+        // Given
+        Customer customer = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 20,
+                Gender.MALE);
+        underTest.insertCustomer(customer);
+
+        // When
+        Optional<CustomerDTO> actual = underTest.selectCustomerDTOById(
+                customer.getId(), CustomerFields.parse("name,username"));
+
+        // Then
+        assertThat(actual).contains(new CustomerDTO(
+                customer.getId(),
+                customer.getName(),
+                null,
+                null,
+                null,
+                null,
+                customer.getEmail(),
+                null));
+    }
+
+    @Test
+    void selectCustomersByIds() {
+        // Given
+        Customer first = new Customer(FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(), "password", 20, Gender.MALE);
+        Customer second = new Customer(FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(), "password", 30, Gender.FEMALE);
+        underTest.insertCustomers(List.of(first, second));
+
+        // When
+        List<CustomerDTO> actual = underTest.selectCustomersByIds(
+                List.of(second.getId(), -1L, first.getId()), CustomerFields.ALL);
+
+        // Then
+        assertThat(actual)
+                .extracting(CustomerDTO::id)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    @Test
+    void updateCustomerReturnsEmptyWhenCustomerDoesNotExist() {
+        // Given
+        Customer update = new Customer();
+        update.setId(-1L);
+        update.setName("foo");
+
+        // When
+        Optional<Customer> actual = underTest.updateCustomer(update);
+
+        // Then
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void versionsMoveOnUpdateAndDelete() {
+        // Given
+        Customer customer = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 20,
+                Gender.MALE);
+        underTest.insertCustomer(customer);
+        Long versionBefore = underTest.selectCustomerVersion(customer.getId()).orElseThrow();
+        CustomersVersion tableBefore = underTest.selectCustomersVersion();
+
+        // When
+        Customer update = new Customer();
+        update.setId(customer.getId());
+        update.setAge(21);
+        underTest.updateCustomer(update);
+        CustomersVersion tableAfterUpdate = underTest.selectCustomersVersion();
+        underTest.deleteCustomerById(customer.getId());
+
+        // Then
+        assertThat(tableAfterUpdate).isNotEqualTo(tableBefore);
+        assertThat(tableAfterUpdate.maxVersion()).isGreaterThan(versionBefore);
+        assertThat(underTest.selectCustomerVersion(customer.getId())).isEmpty();
+        assertThat(underTest.selectCustomersVersion()).isNotEqualTo(tableAfterUpdate);
+    }
+
     @Test
     void willReturnEmptyWhenSelectCustomerById() {
         // Given
@@ -180,6 +353,75 @@ class CustomerJDBCDataAccessServiceTest extends AbstractTestcontainers {
         assertThat(actual).isNotPresent();
     }
 
+    @Test
+    void deleteCustomerByIdReturnsFalseWhenNoRow() {
+        // When
+        boolean actual = underTest.deleteCustomerById(-1L);
+
+        // Then
+        assertThat(actual).isFalse();
+    }
+
+    @Test
+    void deleteCustomersByIds() {
+        // Given
+        Customer first = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 20,
+                Gender.MALE);
+        Customer second = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 30,
+                Gender.FEMALE);
+        underTest.insertCustomer(first);
+        underTest.insertCustomer(second);
+
+        // When
+        List<Long> actual = underTest.deleteCustomersByIds(List.of(first.getId(), second.getId(), -1L));
+
+        // Then
+        assertThat(actual).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(underTest.selectCustomerById(first.getId())).isNotPresent();
+        assertThat(underTest.selectCustomerById(second.getId())).isNotPresent();
+    }
+
+    @Test
+    void updateCustomers() {
+        // Given
+        Customer first = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 20,
+                Gender.MALE);
+        Customer second = new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password", 30,
+                Gender.FEMALE);
+        underTest.insertCustomer(first);
+        underTest.insertCustomer(second);
+
+        // When
+        List<Long> actual = underTest.updateCustomers(List.of(
+                new CustomerBulkUpdate(first.getId(), "foo", null),
+                new CustomerBulkUpdate(second.getId(), null, 44),
+                new CustomerBulkUpdate(-1L, "bar", null)
+        ));
+
+        // Then
+        assertThat(actual).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(underTest.selectCustomerById(first.getId())).hasValueSatisfying(c -> {
+            assertThat(c.getName()).isEqualTo("foo");
+            assertThat(c.getAge()).isEqualTo(20);
+        });
+        assertThat(underTest.selectCustomerById(second.getId())).hasValueSatisfying(c -> {
+            assertThat(c.getName()).isEqualTo(second.getName());
+            assertThat(c.getAge()).isEqualTo(44);
+        });
+    }
+
     @Test
     void updateCustomerName() {
         // Given
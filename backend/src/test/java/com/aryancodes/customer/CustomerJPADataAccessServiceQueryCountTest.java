@@ -0,0 +1,162 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.AbstractTestcontainers;
+import com.aryancodes.QueryCountGuard;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CustomerJPADataAccessServiceQueryCountTest extends AbstractTestcontainers {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CustomerJPADataAccessService underTest;
+    private QueryCountGuard queryCountGuard;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CustomerJPADataAccessService(customerRepository, event -> {
+        });
+        queryCountGuard = new QueryCountGuard(entityManager);
+    }
+
+    @Test
+    void selectCustomerByIdIssuesOneStatement() {
+        // Given
+        Customer customer = insertCustomer();
+
+        // When
+        var actual = queryCountGuard.assertMaxStatements(1,
+                () -> underTest.selectCustomerById(customer.getId()));
+
+        // Then
+        assertThat(actual).isPresent();
+    }
+
+    @Test
+    void selectCustomerDTOByIdIssuesOneStatement() {
+        // Given
+        Customer customer = insertCustomer();
+
+        // When
+        var actual = queryCountGuard.assertMaxStatements(1,
+                () -> underTest.selectCustomerDTOById(customer.getId(), CustomerFields.ALL));
+
+        // Then
+        assertThat(actual).hasValueSatisfying(dto -> assertThat(dto.email()).isEqualTo(customer.getEmail()));
+    }
+
+    @Test
+    void selectUserByEmailIssuesOneStatement() {
+        // Given
+        Customer customer = insertCustomer();
+
+        // When
+        var actual = queryCountGuard.assertMaxStatements(1,
+                () -> underTest.selectUserByEmail(customer.getEmail()));
+
+        // Then
+        assertThat(actual).isPresent();
+    }
+
+    @Test
+    void selectAllCustomersIssuesAtMostPageAndCountQueries() {
+        // Given
+        insertCustomer();
+
+        // When
+        queryCountGuard.assertMaxStatements(2, () -> underTest.selectAllCustomers());
+    }
+
+    @Test
+    void insertCustomerIssuesAtMostSequenceAndInsert() {
+        queryCountGuard.assertMaxStatements(2, () -> underTest.insertCustomer(newCustomer()));
+    }
+
+    @Test
+    void insertCustomersBatchesSequenceCallsAndInserts() {
+        // Given
+        List<Customer> customers = Stream.generate(
+                CustomerJPADataAccessServiceQueryCountTest::newCustomer).limit(100).toList();
+
+        // When
+        // 100 rows: two or three nextval calls for blocks of 50, two insert batches
+        queryCountGuard.assertMaxStatements(5, () -> underTest.insertCustomers(customers));
+
+        // Then
+        assertThat(customers).allSatisfy(customer -> assertThat(customer.getId()).isNotNull());
+    }
+
+    @Test
+    // as CustomerService calls it: a detached customer and no surrounding
+    // transaction, where a merging save would add a SELECT of its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void updateCustomerIssuesOneUpdate() {
+        // Given
+        Customer customer = insertCustomer();
+        customer.setName("foo");
+
+        // When
+        queryCountGuard.assertMaxStatements(1, () -> underTest.updateCustomer(customer));
+
+        // Then
+        assertThat(customerRepository.findById(customer.getId()))
+                .hasValueSatisfying(updated -> assertThat(updated.getName()).isEqualTo("foo"));
+    }
+
+    @Test
+    void existsChecksIssueOneStatement() {
+        // Given
+        Customer customer = insertCustomer();
+
+        // When
+        queryCountGuard.assertMaxStatements(1,
+                () -> underTest.existsCustomerWithEmail(customer.getEmail()));
+        queryCountGuard.assertMaxStatements(1,
+                () -> underTest.existsCustomerById(customer.getId()));
+    }
+
+    @Test
+    void updateProfileImageIdIssuesTwoStatements() {
+        // Given
+        Customer customer = insertCustomer();
+
+        // When
+        // the select captures the previous row for CustomerChangedEvent
+        queryCountGuard.assertMaxStatements(2,
+                () -> underTest.updateCustomerProfileImageId(
+                        UUID.randomUUID().toString(), customer.getId()));
+    }
+
+    private Customer insertCustomer() {
+        Customer customer = newCustomer();
+        customerRepository.saveAndFlush(customer);
+        return customer;
+    }
+
+    private static Customer newCustomer() {
+        return new Customer(
+                FAKER.name().fullName(),
+                FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                "password",
+                20,
+                Gender.MALE);
+    }
+}
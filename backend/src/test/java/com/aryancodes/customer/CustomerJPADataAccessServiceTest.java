@@ -1,12 +1,16 @@
 package com.aryancodes.customer;
 
 import com.aryancodes.exception.ResourceNotFoundException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -26,12 +30,14 @@ class CustomerJPADataAccessServiceTest {
 
     @Mock
     private CustomerRepository customerRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private CustomerJPADataAccessService underTest;
 
     @BeforeEach
     void setUp() {
-        underTest = new CustomerJPADataAccessService(customerRepository);
+        underTest = new CustomerJPADataAccessService(customerRepository, eventPublisher);
     }
 
     @AfterEach
@@ -87,6 +93,39 @@ class CustomerJPADataAccessServiceTest {
         assertThat(actual).isEmpty();
     }
 
+    @Test
+    void selectAllCustomerDTOs() {
+        // When
+        underTest.selectAllCustomerDTOs(CustomerFields.ALL);
+
+        // Then
+        verify(customerRepository).findAllCustomerDTOs(Pageable.ofSize(1000));
+    }
+
+    @Test
+    void selectCustomerDTOById() {
+        // Given
+        Long id = 1L;
+
+        // When
+        underTest.selectCustomerDTOById(id, CustomerFields.ALL);
+
+        // Then
+        verify(customerRepository).findCustomerDTOById(id);
+    }
+
+    @Test
+    void selectCustomersByIds() {
+        // Given
+        List<Long> ids = List.of(1L, 2L);
+
+        // When
+        underTest.selectCustomersByIds(ids, CustomerFields.ALL);
+
+        // Then
+        verify(customerRepository).findCustomerDTOsByIds(ids);
+    }
+
     @Test
     void insertCustomer() {
         // Given
@@ -98,7 +137,40 @@ class CustomerJPADataAccessServiceTest {
         underTest.insertCustomer(customer);
 
         // Then
-        verify(customerRepository).save(customer);
+        verify(customerRepository).saveAndFlush(customer);
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.inserted(customer));
+    }
+
+    @Test
+    void insertCustomerTranslatesEmailConstraintViolation() {
+        // Given
+        Customer customer = new Customer("Ali", "ali@gmail.com", "password", 2, Gender.MALE);
+        when(customerRepository.saveAndFlush(customer)).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("duplicate key", null, Customer.EMAIL_CONSTRAINT)));
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.insertCustomer(customer))
+                .isInstanceOf(DuplicateKeyException.class)
+                .hasMessage("customer with email [ali@gmail.com] already exists");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void insertCustomers() {
+        // Given
+        Customer alex = new Customer("Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        Customer jamila = new Customer("Jamila", "jamila@gmail.com", "password", 25, Gender.FEMALE);
+        List<Customer> customers = List.of(alex, jamila);
+
+        // When
+        underTest.insertCustomers(customers);
+
+        // Then
+        verify(customerRepository).saveAll(customers);
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.inserted(alex));
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.inserted(jamila));
     }
 
     @Test
@@ -131,26 +203,75 @@ class CustomerJPADataAccessServiceTest {
     void deleteCustomerById() {
         // Given
         Long id = 1L;
+        Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        when(customerRepository.findById(id)).thenReturn(Optional.of(customer));
 
         // When
         underTest.deleteCustomerById(id);
 
         // Then
-        verify(customerRepository).deleteById(id);
+        verify(customerRepository).delete(customer);
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.deleted(customer));
     }
 
     @Test
     void updateCustomer() {
         // Given
         Long id = 1L;
-        Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerRepository.save(customer)).thenReturn(customer);
+        Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 20, Gender.MALE);
+        CustomerRepository.CustomerRow previous = mock(CustomerRepository.CustomerRow.class);
+        when(previous.getId()).thenReturn(id);
+        when(previous.getName()).thenReturn("Alex");
+        when(previous.getEmail()).thenReturn("alex@gmail.com");
+        when(previous.getPassword()).thenReturn("password");
+        when(previous.getAge()).thenReturn(19);
+        when(previous.getGender()).thenReturn("MALE");
+        when(customerRepository.updateCustomerReturningPrevious(id, "Alex", "alex@gmail.com", 20))
+                .thenReturn(List.of(previous));
 
         // When
-        underTest.updateCustomer(customer);
+        Optional<Customer> actual = underTest.updateCustomer(customer);
 
         // Then
-        verify(customerRepository).save(customer);
+        assertThat(actual).hasValueSatisfying(before -> assertThat(before.getAge()).isEqualTo(19));
+        verify(customerRepository, never()).findById(any());
+        verify(customerRepository, never()).saveAndFlush(any());
+        verify(eventPublisher).publishEvent(CustomerChangedEvent.updated(
+                new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE),
+                customer));
+    }
+
+    @Test
+    void updateCustomerReturnsEmptyWhenNoRowMatched() {
+        // Given
+        Customer update = new Customer();
+        update.setId(1L);
+        update.setName("Alex");
+        when(customerRepository.updateCustomerReturningPrevious(1L, "Alex", null, null))
+                .thenReturn(List.of());
+
+        // When
+        Optional<Customer> actual = underTest.updateCustomer(update);
+
+        // Then
+        assertThat(actual).isEmpty();
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void updateCustomerTranslatesEmailConstraintViolation() {
+        // Given
+        Customer customer = new Customer(1L, "Alex", "jamila@gmail.com", "password", 19, Gender.MALE);
+        when(customerRepository.updateCustomerReturningPrevious(1L, "Alex", "jamila@gmail.com", 19))
+                .thenThrow(new DataIntegrityViolationException(
+                        "could not execute statement",
+                        new ConstraintViolationException("duplicate key", null, Customer.EMAIL_CONSTRAINT)));
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.updateCustomer(customer))
+                .isInstanceOf(DuplicateKeyException.class);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -0,0 +1,94 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.AbstractTestcontainers;
+import com.aryancodes.QueryCountGuard;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts/sec for flushing one customer at a time against
+ * {@link CustomerJPADataAccessService#insertCustomers(List)}. The rates are
+ * logged, not compared; what is checked is that the batched path sends one
+ * statement per JDBC batch and id block. Runs with the integration tests,
+ * not {@code mvn test}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CustomerJPAInsertThroughputIT extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerJPAInsertThroughputIT.class);
+
+    private static final int CUSTOMERS = 5_000;
+    // hibernate.jdbc.batch_size and the id sequence's allocationSize
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private CustomerJPADataAccessService underTest;
+    private QueryCountGuard queryCountGuard;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CustomerJPADataAccessService(customerRepository, event -> {
+        });
+        queryCountGuard = new QueryCountGuard(entityManager);
+    }
+
+    @Test
+    void insertCustomersSendsOneStatementPerBatch() {
+        // Given
+        List<Customer> single = newCustomers();
+        List<Customer> batched = newCustomers();
+
+        // When
+        long start = System.nanoTime();
+        for (Customer customer : single) {
+            underTest.insertCustomer(customer);
+            entityManager.flush();
+        }
+        Duration singleElapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        long batches = CUSTOMERS / BATCH_SIZE;
+        start = System.nanoTime();
+        // an insert batch and a nextval per block of 50, plus one block of slack
+        queryCountGuard.assertMaxStatements(2 * batches + 2, () -> underTest.insertCustomers(batched));
+        Duration batchedElapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(batched).allSatisfy(customer -> assertThat(customer.getId()).isNotNull());
+        log.info("jpa inserts one at a time: {} inserts/s, insertCustomers: {} inserts/s",
+                rate(singleElapsed), rate(batchedElapsed));
+    }
+
+    private static long rate(Duration elapsed) {
+        return Math.round(CUSTOMERS / (elapsed.toNanos() / 1e9));
+    }
+
+    private static List<Customer> newCustomers() {
+        return Stream.generate(() -> new Customer(
+                        FAKER.name().fullName(),
+                        FAKER.internet().safeEmailAddress() + "-" + UUID.randomUUID(),
+                        "password",
+                        20,
+                        Gender.MALE))
+                .limit(CUSTOMERS)
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.aryancodes.customer;
+
+import com.aryancodes.AbstractTestcontainers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs EXPLAIN on the SQL {@link CustomerJDBCDataAccessService} generates for
+ * searches against a table big enough that Postgres would rather scan it
+ * sequentially if no index applied.
+ */
+class CustomerSearchQueryPlanTest extends AbstractTestcontainers {
+
+    private static JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    static void seed() {
+        jdbcTemplate = getJdbcTemplate();
+        jdbcTemplate.update("""
+                INSERT INTO customer(name, email, password, age, gender)
+                SELECT md5(i::text), 'search-' || i || '@aryancodes.com', 'password',
+                       16 + i % 80, CASE WHEN i % 2 = 0 THEN 'MALE' ELSE 'FEMALE' END
+                FROM generate_series(1, 200000) AS i
+                """);
+        jdbcTemplate.execute("ANALYZE customer");
+    }
+
+    @Test
+    void namePrefixSearchUsesIndex() {
+        assertIndexDriven(criteria("a1b", CustomerNameMatch.PREFIX,
+                null, null, CustomerSortField.NAME, null));
+    }
+
+    @Test
+    void nameSubstringSearchUsesTrigramIndex() {
+        List<String> plan = explain(criteria("c0ffe", CustomerNameMatch.CONTAINS,
+                null, null, CustomerSortField.NAME, null));
+
+        assertThat(plan).noneMatch(line -> line.contains("Seq Scan"));
+        assertThat(String.join("\n", plan)).contains("customer_lower_name_trgm_idx");
+    }
+
+    @Test
+    void ageRangeSearchUsesIndex() {
+        assertIndexDriven(criteria(null, null, 30, 31, CustomerSortField.AGE, null));
+    }
+
+    @Test
+    void keysetPageByNameUsesIndex() {
+        CustomerSearchCursor after = new CustomerSearchCursor(CustomerSortField.NAME, "8", 100L);
+
+        assertIndexDriven(criteria(null, null, null, null, CustomerSortField.NAME, after));
+    }
+
+    @Test
+    void keysetPageByAgeUsesIndex() {
+        CustomerSearchCursor after = new CustomerSearchCursor(CustomerSortField.AGE, "50", 100L);
+
+        assertIndexDriven(criteria(null, null, null, null, CustomerSortField.AGE, after));
+    }
+
+    private static CustomerSearchCriteria criteria(String name,
+                                                   CustomerNameMatch match,
+                                                   Integer minAge,
+                                                   Integer maxAge,
+                                                   CustomerSortField sort,
+                                                   CustomerSearchCursor after) {
+        return new CustomerSearchCriteria(
+                name, match, minAge, maxAge, null, sort, Sort.Direction.ASC, after, 51);
+    }
+
+    private static void assertIndexDriven(CustomerSearchCriteria criteria) {
+        List<String> plan = explain(criteria);
+
+        assertThat(plan)
+                .as(String.join("\n", plan))
+                .noneMatch(line -> line.contains("Seq Scan"))
+                .anyMatch(line -> line.contains("Index"));
+    }
+
+    private static List<String> explain(CustomerSearchCriteria criteria) {
+        CustomerJDBCDataAccessService.SearchQuery query =
+                CustomerJDBCDataAccessService.searchQuery(criteria);
+        return jdbcTemplate.queryForList(
+                "EXPLAIN " + query.sql(),
+                String.class,
+                query.args().toArray()
+        );
+    }
+}
@@ -6,6 +6,8 @@ import com.aryancodes.customer.CustomerDTOMapper;
 import com.aryancodes.customer.CustomerRegistrationRequest;
 import com.aryancodes.customer.CustomerService;
 import com.aryancodes.customer.CustomerUpdateRequest;
+import com.aryancodes.datasource.DataSourceRoutingProperties;
+import com.aryancodes.datasource.ReadYourWritesTracker;
 import com.aryancodes.exception.DuplicateResourceException;
 import com.aryancodes.exception.RequestValidationException;
 import com.aryancodes.exception.ResourceNotFoundException;
@@ -17,8 +19,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -45,6 +49,8 @@ public class CustomerServiceTest {
     private S3Service s3Service;
     @Mock
     private S3Buckets s3Buckets;
+    @Mock
+    private PlatformTransactionManager transactionManager;
     private CustomerService underTest;
     private final CustomerDTOMapper customerDTOMapperReal = new CustomerDTOMapper();
 
@@ -55,29 +61,33 @@ public class CustomerServiceTest {
                 customerDTOMapperReal,
                 passwordEncoder,
                 s3Service,
-                s3Buckets
+                s3Buckets,
+                new ReadYourWritesTracker(new DataSourceRoutingProperties()),
+                transactionManager
         );
     }
 
     @Test
     void getAllCustomers() {
         // Given
-        Customer customer = new Customer(
+        CustomerDTO customer = new CustomerDTO(
                 1L,
                 "Alex",
                 "alex@aryancodes.com",
-                "password", 19,
-                Gender.MALE
+                Gender.MALE,
+                19,
+                null
         );
-        List<Customer> customers = List.of(customer);
-        when(customerDao.selectAllCustomers()).thenReturn(customers);
+        List<CustomerDTO> customers = List.of(customer);
+        when(customerDao.selectAllCustomerDTOs(CustomerFields.ALL)).thenReturn(customers);
 
         // When
-        List<CustomerDTO> actual = underTest.getAllCustomers();
+        List<CustomerDTO> actual = underTest.getAllCustomers(CustomerFields.ALL);
 
         // Then
-        assertThat(actual).hasSize(customers.size());
-        verify(customerDao).selectAllCustomers();
+        assertThat(actual).isEqualTo(customers);
+        verify(customerDao).selectAllCustomerDTOs(CustomerFields.ALL);
+        verify(customerDao, never()).selectAllCustomers();
     }
 
     @Test
@@ -85,12 +95,12 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
-
         CustomerDTO expected = customerDTOMapperReal.apply(customer);
+        when(customerDao.selectCustomerDTOById(id, CustomerFields.ALL)).thenReturn(Optional.of(new CustomerDTO(
+                id, "Alex", "alex@gmail.com", Gender.MALE, 19, null)));
 
         // When
-        CustomerDTO actual = underTest.getCustomer(id);
+        CustomerDTO actual = underTest.getCustomer(id, CustomerFields.ALL);
 
         // Then
         assertThat(actual).isEqualTo(expected);
@@ -101,22 +111,72 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
 
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.empty());
+        when(customerDao.selectCustomerDTOById(id, CustomerFields.ALL)).thenReturn(Optional.empty());
 
         // When
         // Then
-        assertThatThrownBy(() -> underTest.getCustomer(id))
+        assertThatThrownBy(() -> underTest.getCustomer(id, CustomerFields.ALL))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessage("customer with id [%s] not found".formatted(id));
     }
 
+    @Test
+    void getCustomersByIdsKeepsRequestOrderAndReportsMissing() {
+        // Given
+        List<Long> ids = List.of(3L, 1L, 7L, 2L);
+        CustomerDTO one = new CustomerDTO(1L, "Alex", "alex@gmail.com", Gender.MALE, 19, null);
+        CustomerDTO two = new CustomerDTO(2L, "Jamila", "jamila@gmail.com", Gender.FEMALE, 25, null);
+        CustomerDTO three = new CustomerDTO(3L, "Ali", "ali@gmail.com", Gender.MALE, 31, null);
+        when(customerDao.selectCustomersByIds(ids, CustomerFields.ALL)).thenReturn(List.of(one, two, three));
+
+        // When
+        CustomerBatchResponse actual = underTest.getCustomersByIds(ids, CustomerFields.ALL);
+
+        // Then
+        assertThat(actual.customers()).containsExactly(three, one, two);
+        assertThat(actual.missing()).containsExactly(7L);
+    }
+
+    @Test
+    void getCustomersByIdsRejectsDuplicateIds() {
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.getCustomersByIds(List.of(1L, 1L), CustomerFields.ALL))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("customer ids must be unique");
+        verifyNoInteractions(customerDao);
+    }
+
+    @Test
+    void allCustomersETagComesFromCountAndMaxVersion() {
+        // Given
+        when(customerDao.selectCustomersVersion()).thenReturn(new CustomersVersion(12, 345));
+
+        // When
+        String actual = underTest.getAllCustomersETag();
+
+        // Then
+        assertThat(actual).isEqualTo("12-345");
+        verify(customerDao, never()).selectAllCustomerDTOs(any());
+    }
+
+    @Test
+    void customerETagIsEmptyWhenCustomerDoesNotExist() {
+        // Given
+        when(customerDao.selectCustomerVersion(10L)).thenReturn(Optional.empty());
+        when(customerDao.selectCustomerVersion(11L)).thenReturn(Optional.of(7L));
+
+        // When
+        // Then
+        assertThat(underTest.getCustomerETag(10L)).isEmpty();
+        assertThat(underTest.getCustomerETag(11L)).contains("11-7");
+    }
+
     @Test
     void addCustomer() {
         // Given
         String email = "alex@gmail.com";
 
-        when(customerDao.existsCustomerWithEmail(email)).thenReturn(false);
-
         CustomerRegistrationRequest request = new CustomerRegistrationRequest("Alex", email, "password", 19, Gender.MALE);
 
         String passwordHash = "¢5554ml;f;lsd";
@@ -145,7 +205,8 @@ public class CustomerServiceTest {
         // Given
         String email = "alex@gmail.com";
 
-        when(customerDao.existsCustomerWithEmail(email)).thenReturn(true);
+        doThrow(new DuplicateKeyException("customer with email [%s] already exists".formatted(email)))
+                .when(customerDao).insertCustomer(any());
 
         CustomerRegistrationRequest request = new CustomerRegistrationRequest("Alex", email, "password", 19, Gender.MALE);
 
@@ -153,7 +214,7 @@ public class CustomerServiceTest {
         assertThatThrownBy(() -> underTest.addCustomer(request)).isInstanceOf(DuplicateResourceException.class).hasMessage("email already taken");
 
         // Then
-        verify(customerDao, never()).insertCustomer(any());
+        verify(customerDao, never()).existsCustomerWithEmail(any());
     }
 
     @Test
@@ -161,12 +222,13 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
 
-        when(customerDao.existsCustomerById(id)).thenReturn(true);
+        when(customerDao.deleteCustomerById(id)).thenReturn(true);
 
         // When
         underTest.deleteCustomerById(id);
         // Then
         verify(customerDao).deleteCustomerById(id);
+        verify(customerDao, never()).existsCustomerById(any());
     }
 
     @Test
@@ -174,7 +236,7 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
 
-        when(customerDao.existsCustomerById(id)).thenReturn(false);
+        when(customerDao.deleteCustomerById(id)).thenReturn(false);
 
         // When
         assertThatThrownBy(() -> underTest.deleteCustomerById(id))
@@ -182,7 +244,72 @@ public class CustomerServiceTest {
                 .hasMessage("customer with id [%s] not found".formatted(id));
 
         // Then
-        verify(customerDao, never()).deleteCustomerById(id);
+        verify(customerDao).deleteCustomerById(id);
+    }
+
+    @Test
+    void deleteCustomersReportsEachId() {
+        // Given
+        List<Long> ids = List.of(1L, 2L, 3L);
+        when(customerDao.deleteCustomersByIds(ids)).thenReturn(List.of(3L, 1L));
+
+        // When
+        List<CustomerBulkResult> actual = underTest.deleteCustomers(new CustomerBulkDeleteRequest(ids));
+
+        // Then
+        assertThat(actual).containsExactly(
+                new CustomerBulkResult(1L, CustomerBulkResult.Status.DELETED),
+                new CustomerBulkResult(2L, CustomerBulkResult.Status.NOT_FOUND),
+                new CustomerBulkResult(3L, CustomerBulkResult.Status.DELETED)
+        );
+    }
+
+    @Test
+    void willThrowWhenBulkIdsAreDuplicated() {
+        // Given
+        CustomerBulkDeleteRequest request = new CustomerBulkDeleteRequest(List.of(1L, 1L));
+
+        // When
+        assertThatThrownBy(() -> underTest.deleteCustomers(request))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("customer ids must be unique");
+
+        // Then
+        verify(customerDao, never()).deleteCustomersByIds(any());
+    }
+
+    @Test
+    void updateCustomersReportsEachId() {
+        // Given
+        List<CustomerBulkUpdate> updates = List.of(
+                new CustomerBulkUpdate(1L, "Alex", null),
+                new CustomerBulkUpdate(2L, null, 30)
+        );
+        when(customerDao.updateCustomers(updates)).thenReturn(List.of(2L));
+
+        // When
+        List<CustomerBulkResult> actual = underTest.updateCustomers(new CustomerBulkUpdateRequest(updates));
+
+        // Then
+        assertThat(actual).containsExactly(
+                new CustomerBulkResult(1L, CustomerBulkResult.Status.NOT_FOUND),
+                new CustomerBulkResult(2L, CustomerBulkResult.Status.UPDATED)
+        );
+    }
+
+    @Test
+    void willThrowWhenBulkUpdateHasNoChanges() {
+        // Given
+        CustomerBulkUpdateRequest request = new CustomerBulkUpdateRequest(List.of(
+                new CustomerBulkUpdate(1L, null, null)));
+
+        // When
+        assertThatThrownBy(() -> underTest.updateCustomers(request))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("no data changes found for customer with id [1]");
+
+        // Then
+        verify(customerDao, never()).updateCustomers(any());
     }
 
     @Test
@@ -190,14 +317,12 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.of(customer));
 
         String newEmail = "alexandro@aryancodes.com";
 
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest("Alexandro", newEmail, 23);
 
-        when(customerDao.existsCustomerWithEmail(newEmail)).thenReturn(false);
-
         // When
         underTest.updateCustomer(id, updateRequest);
 
@@ -207,9 +332,11 @@ public class CustomerServiceTest {
         verify(customerDao).updateCustomer(customerArgumentCaptor.capture());
         Customer capturedCustomer = customerArgumentCaptor.getValue();
 
+        assertThat(capturedCustomer.getId()).isEqualTo(id);
         assertThat(capturedCustomer.getName()).isEqualTo(updateRequest.name());
         assertThat(capturedCustomer.getEmail()).isEqualTo(updateRequest.email());
         assertThat(capturedCustomer.getAge()).isEqualTo(updateRequest.age());
+        verify(customerDao, never()).selectCustomerById(any());
     }
 
     @Test
@@ -217,7 +344,7 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.of(customer));
 
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest("Alexandro", null, null);
 
@@ -230,9 +357,10 @@ public class CustomerServiceTest {
         verify(customerDao).updateCustomer(customerArgumentCaptor.capture());
         Customer capturedCustomer = customerArgumentCaptor.getValue();
 
+        // fields not in the request are left for the UPDATE to keep, not copied from a read
         assertThat(capturedCustomer.getName()).isEqualTo(updateRequest.name());
-        assertThat(capturedCustomer.getAge()).isEqualTo(customer.getAge());
-        assertThat(capturedCustomer.getEmail()).isEqualTo(customer.getEmail());
+        assertThat(capturedCustomer.getAge()).isNull();
+        assertThat(capturedCustomer.getEmail()).isNull();
     }
 
     @Test
@@ -240,14 +368,12 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.of(customer));
 
         String newEmail = "alexandro@aryancodes.com";
 
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest(null, newEmail, null);
 
-        when(customerDao.existsCustomerWithEmail(newEmail)).thenReturn(false);
-
         // When
         underTest.updateCustomer(id, updateRequest);
 
@@ -256,8 +382,8 @@ public class CustomerServiceTest {
         verify(customerDao).updateCustomer(customerArgumentCaptor.capture());
         Customer capturedCustomer = customerArgumentCaptor.getValue();
 
-        assertThat(capturedCustomer.getName()).isEqualTo(customer.getName());
-        assertThat(capturedCustomer.getAge()).isEqualTo(customer.getAge());
+        assertThat(capturedCustomer.getName()).isNull();
+        assertThat(capturedCustomer.getAge()).isNull();
         assertThat(capturedCustomer.getEmail()).isEqualTo(updateRequest.email());
     }
 
@@ -266,7 +392,7 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.of(customer));
 
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest(null, null, 23);
 
@@ -278,21 +404,34 @@ public class CustomerServiceTest {
         verify(customerDao).updateCustomer(customerArgumentCaptor.capture());
         Customer capturedCustomer = customerArgumentCaptor.getValue();
 
-        assertThat(capturedCustomer.getName()).isEqualTo(customer.getName());
+        assertThat(capturedCustomer.getName()).isNull();
         assertThat(capturedCustomer.getAge()).isEqualTo(updateRequest.age());
-        assertThat(capturedCustomer.getEmail()).isEqualTo(customer.getEmail());
+        assertThat(capturedCustomer.getEmail()).isNull();
     }
 
     @Test
-    void willThrowWhenTryingToUpdateCustomerEmailWhenAlreadyTaken() {
+    void willThrowWhenUpdatingCustomerThatDoesNotExist() {
         // Given
         Long id = 10L;
-        Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.empty());
+
+        CustomerUpdateRequest updateRequest = new CustomerUpdateRequest("Alexandro", null, null);
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.updateCustomer(id, updateRequest))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessage("customer with id [%s] not found".formatted(id));
+    }
 
+    @Test
+    void willThrowWhenTryingToUpdateCustomerEmailWhenAlreadyTaken() {
+        // Given
+        Long id = 10L;
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest(null, "alexandro@aryancodes.com", null);
 
-        when(customerDao.existsCustomerWithEmail(updateRequest.email())).thenReturn(true);
+        doThrow(new DuplicateKeyException("customer with email [%s] already exists".formatted(updateRequest.email())))
+                .when(customerDao).updateCustomer(any());
 
         // When
         assertThatThrownBy(() -> underTest.updateCustomer(id, updateRequest))
@@ -300,7 +439,7 @@ public class CustomerServiceTest {
                 .hasMessage("email already taken");
 
         // Then
-        verify(customerDao, never()).updateCustomer(any());
+        verify(customerDao, never()).existsCustomerWithEmail(any());
     }
 
     @Test
@@ -308,7 +447,7 @@ public class CustomerServiceTest {
         // Given
         Long id = 10L;
         Customer customer = new Customer(id, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
-        when(customerDao.selectCustomerById(id)).thenReturn(Optional.of(customer));
+        when(customerDao.updateCustomer(any())).thenReturn(Optional.of(customer));
 
         CustomerUpdateRequest updateRequest = new CustomerUpdateRequest(
                 customer.getName(),
@@ -321,6 +460,21 @@ public class CustomerServiceTest {
                 .isInstanceOf(RequestValidationException.class)
                 .hasMessage("no data changes found");
 
+        // Then
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void willThrowWhenCustomerUpdateIsEmpty() {
+        // Given
+        CustomerUpdateRequest updateRequest = new CustomerUpdateRequest(null, null, null);
+
+        // When
+        assertThatThrownBy(() -> underTest.updateCustomer(10L, updateRequest))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("no data changes found");
+
         // Then
         verify(customerDao, never()).updateCustomer(any());
     }
@@ -482,4 +636,78 @@ public class CustomerServiceTest {
         verify(customerDao, never()).existsCustomerById(any());
         verify(s3Service, never()).getObject(any(), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchCustomersReturnsCursorWhenThereIsAnotherPage() {
+        // Given
+        Customer alex = new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        Customer alexa = new Customer(2L, "Alexa", "alexa@gmail.com", "password", 21, Gender.FEMALE);
+        when(customerDao.searchCustomers(any())).thenReturn(List.of(alex, alexa));
+
+        CustomerSearchRequest request = new CustomerSearchRequest(
+                "ale", null, null, null, null, CustomerSortField.NAME, null, 1, null);
+
+        // When
+        CustomerSearchResponse actual = underTest.searchCustomers(request);
+
+        // Then
+        ArgumentCaptor<CustomerSearchCriteria> criteriaArgumentCaptor =
+                ArgumentCaptor.forClass(CustomerSearchCriteria.class);
+        verify(customerDao).searchCustomers(criteriaArgumentCaptor.capture());
+        CustomerSearchCriteria criteria = criteriaArgumentCaptor.getValue();
+        assertThat(criteria.limit()).isEqualTo(2);
+        assertThat(criteria.namePattern()).isEqualTo("ale%");
+
+        assertThat(actual.customers()).extracting(CustomerDTO::id).containsExactly(1L);
+        assertThat(CustomerSearchCursor.decode(actual.nextCursor()))
+                .isEqualTo(new CustomerSearchCursor(CustomerSortField.NAME, "Alex", 1L));
+    }
+
+    @Test
+    void searchCustomersReturnsNoCursorOnLastPage() {
+        // Given
+        Customer alex = new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        when(customerDao.searchCustomers(any())).thenReturn(List.of(alex));
+
+        CustomerSearchRequest request = new CustomerSearchRequest(
+                null, null, 18, 30, Gender.MALE, null, null, null, null);
+
+        // When
+        CustomerSearchResponse actual = underTest.searchCustomers(request);
+
+        // Then
+        assertThat(actual.customers()).hasSize(1);
+        assertThat(actual.nextCursor()).isNull();
+    }
+
+    @Test
+    void willThrowWhenSearchAgeRangeIsInverted() {
+        // Given
+        CustomerSearchRequest request = new CustomerSearchRequest(
+                null, null, 30, 18, null, null, null, null, null);
+
+        // When
+        assertThatThrownBy(() -> underTest.searchCustomers(request))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("minAge must not be greater than maxAge");
+
+        // Then
+        verify(customerDao, never()).searchCustomers(any());
+    }
+
+    @Test
+    void willThrowWhenSearchCursorWasIssuedForAnotherSort() {
+        // Given
+        String cursor = new CustomerSearchCursor(CustomerSortField.AGE, "21", 2L).encode();
+        CustomerSearchRequest request = new CustomerSearchRequest(
+                null, null, null, null, null, CustomerSortField.NAME, null, null, cursor);
+
+        // When
+        assertThatThrownBy(() -> underTest.searchCustomers(request))
+                .isInstanceOf(RequestValidationException.class)
+                .hasMessage("cursor does not match sort NAME");
+
+        // Then
+        verify(customerDao, never()).searchCustomers(any());
+    }
+}
@@ -0,0 +1,137 @@
+package com.aryancodes.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final ReplicaLagMonitor replicaLagMonitor = mock(ReplicaLagMonitor.class);
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ReadWriteRoutingDataSource underTest;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replicaLagMonitor.healthyReplicas()).thenReturn(List.of("replica-0"));
+
+        readYourWritesTracker = new ReadYourWritesTracker(new DataSourceRoutingProperties());
+        underTest = new ReadWriteRoutingDataSource(readYourWritesTracker, replicaLagMonitor);
+        underTest.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.PRIMARY, primary,
+                "replica-0", replica
+        ));
+        underTest.setDefaultTargetDataSource(primary);
+        underTest.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writesGoToPrimary() throws SQLException {
+        // When
+        Connection actual = underTest.getConnection();
+
+        // Then
+        assertThat(actual).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() throws SQLException {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection actual = underTest.getConnection();
+
+        // Then
+        assertThat(actual).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readsAfterOwnWriteGoToPrimary() throws SQLException {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alex@aryancodes.com", null, List.of()));
+        readYourWritesTracker.markCurrentSubjectWrite();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection actual = underTest.getConnection();
+
+        // Then
+        assertThat(actual).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void loginAfterRegistrationGoesToPrimary() {
+        // Given
+        readYourWritesTracker.markWrite("alex@aryancodes.com");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection actual = readYourWritesTracker.withSubject("alex@aryancodes.com", this::connection);
+        Connection other = readYourWritesTracker.withSubject("jamila@aryancodes.com", this::connection);
+
+        // Then
+        assertThat(actual).isSameAs(primaryConnection);
+        assertThat(other).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void cacheFillsGoToPrimary() {
+        // Given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection actual = readYourWritesTracker.onPrimary(this::connection);
+        Connection after = connection();
+
+        // Then
+        assertThat(actual).isSameAs(primaryConnection);
+        assertThat(after).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenReplicasLag() throws SQLException {
+        // Given
+        when(replicaLagMonitor.healthyReplicas()).thenReturn(List.of());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When
+        Connection actual = underTest.getConnection();
+
+        // Then
+        assertThat(actual).isSameAs(primaryConnection);
+    }
+
+    private Connection connection() {
+        try {
+            return underTest.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
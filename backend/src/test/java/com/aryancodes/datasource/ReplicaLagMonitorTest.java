@@ -0,0 +1,85 @@
+package com.aryancodes.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaLagMonitorTest {
+
+    private static final Duration MAX_LAG = Duration.ofSeconds(5);
+
+    private final AtomicLong now = new AtomicLong();
+    private final Map<String, JdbcTemplate> replicas = new LinkedHashMap<>();
+
+    @Test
+    void replicaWithinMaxLagIsHealthy() throws SQLException {
+        // Given
+        replica("replica-0", true, 1.5);
+        ReplicaLagMonitor underTest = new ReplicaLagMonitor(replicas, MAX_LAG, now::get);
+
+        // When
+        underTest.checkLag();
+
+        // Then
+        assertThat(underTest.healthyReplicas()).containsExactly("replica-0");
+    }
+
+    @Test
+    void laggingUnreachableAndNonStandbyReplicasAreNot() throws SQLException {
+        // Given
+        replica("lagging", true, 30);
+        replica("not-a-standby", false, 0);
+        JdbcTemplate unreachable = mock(JdbcTemplate.class);
+        when(unreachable.queryForObject(eq(ReplicaLagMonitor.LAG_SQL), any(RowMapper.class)))
+                .thenThrow(new CannotGetJdbcConnectionException("connection refused"));
+        replicas.put("unreachable", unreachable);
+        ReplicaLagMonitor underTest = new ReplicaLagMonitor(replicas, MAX_LAG, now::get);
+
+        // When
+        underTest.checkLag();
+
+        // Then
+        assertThat(underTest.healthyReplicas()).isEmpty();
+    }
+
+    @Test
+    void staleCheckRoutesReadsToPrimary() throws SQLException {
+        // Given
+        replica("replica-0", true, 0);
+        ReplicaLagMonitor underTest = new ReplicaLagMonitor(replicas, MAX_LAG, now::get);
+        underTest.checkLag();
+
+        // When
+        now.addAndGet(MAX_LAG.plusMillis(1).toNanos());
+
+        // Then
+        assertThat(underTest.healthyReplicas()).isEmpty();
+        underTest.checkLag();
+        assertThat(underTest.healthyReplicas()).containsExactly("replica-0");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replica(String name, boolean standby, double lagSeconds) throws SQLException {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getBoolean("standby")).thenReturn(standby);
+        when(row.getDouble("lag_seconds")).thenReturn(lagSeconds);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(eq(ReplicaLagMonitor.LAG_SQL), any(RowMapper.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1, RowMapper.class).mapRow(row, 0));
+        replicas.put(name, jdbcTemplate);
+    }
+}
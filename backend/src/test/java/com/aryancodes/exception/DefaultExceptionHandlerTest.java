@@ -0,0 +1,96 @@
+package com.aryancodes.exception;
+
+import com.aryancodes.customer.CustomerController;
+import com.aryancodes.customer.CustomerService;
+import com.aryancodes.customer.CustomerUpdateRequest;
+import com.aryancodes.json.ApiErrorWriter;
+import com.aryancodes.jwt.JWTUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Domain exceptions thrown through {@link CustomerController} are answered
+ * with their {@code @ResponseStatus}, not the catch-all 500.
+ */
+@SpringBootTest(classes = {
+        CustomerController.class,
+        DefaultExceptionHandler.class,
+        ApiErrorWriter.class
+})
+@ImportAutoConfiguration({
+        JacksonAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class
+})
+@AutoConfigureMockMvc(addFilters = false)
+class DefaultExceptionHandlerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CustomerService customerService;
+
+    @MockBean
+    private JWTUtil jwtUtil;
+
+    @Test
+    void takenEmailIsConflict() throws Exception {
+        // Given
+        doThrow(new DuplicateResourceException("email already taken"))
+                .when(customerService).updateCustomer(eq(1L), any(CustomerUpdateRequest.class));
+
+        // When
+        // Then
+        mockMvc.perform(put("/api/v1/customers/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"jamila@gmail.com\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.statusCode").value(409))
+                .andExpect(jsonPath("$.message").value("email already taken"));
+    }
+
+    @Test
+    void unknownFieldIsBadRequest() throws Exception {
+        // When
+        // Then
+        mockMvc.perform(get("/api/v1/customers").param("fields", "id,shoeSize"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.statusCode").value(400))
+                .andExpect(jsonPath("$.message").value("unknown customer field [shoeSize]"));
+    }
+
+    @Test
+    void missingCustomerIsNotFound() throws Exception {
+        // Given
+        doThrow(new ResourceNotFoundException("customer with id [1] not found"))
+                .when(customerService).updateCustomer(eq(1L), any(CustomerUpdateRequest.class));
+
+        // When
+        // Then
+        mockMvc.perform(put("/api/v1/customers/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"foo\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.statusCode").value(404));
+    }
+}
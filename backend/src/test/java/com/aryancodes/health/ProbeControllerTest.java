@@ -0,0 +1,164 @@
+package com.aryancodes.health;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProbeControllerTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger databaseCalls = new AtomicInteger();
+    private volatile boolean databaseUp = true;
+    private volatile boolean objectStoreUp = true;
+    private SimpleMeterRegistry meterRegistry;
+    private DependencyHealthChecker checker;
+    private ProbeController underTest;
+
+    @AfterEach
+    void tearDown() {
+        checker.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DependencyCheck> checks = new LinkedHashMap<>();
+        checks.put("database", () -> {
+            if (!databaseUp) {
+                throw new IllegalStateException("connection refused");
+            }
+            return "calls=" + databaseCalls.incrementAndGet();
+        });
+        checks.put("objectStore", () -> {
+            if (!objectStoreUp) {
+                throw new IllegalStateException("unreachable");
+            }
+            return "ok";
+        });
+        meterRegistry = new SimpleMeterRegistry();
+        checker = new DependencyHealthChecker(checks, Duration.ofSeconds(1), now::get);
+        underTest = new ProbeController(checker, meterRegistry, Duration.ofMinutes(2), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void notReadyBeforeTheFirstCheckButAlive() {
+        assertThat(underTest.readiness().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(underTest.liveness().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void probesAnswerFromTheCachedSnapshot() {
+        // Given
+        checker.refresh();
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            underTest.readiness();
+        }
+        var actual = underTest.readiness();
+
+        // Then
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(checker.snapshot().dependencies()).containsOnlyKeys("database", "objectStore");
+        assertThat(databaseCalls).hasValue(1);
+        assertThat(meterRegistry.get("health.probes")
+                .tag("probe", "readiness").tag("outcome", "up")
+                .functionCounter().count()).isEqualTo(101);
+    }
+
+    @Test
+    void notReadyWhileTheDatabaseIsDown() {
+        // Given
+        databaseUp = false;
+
+        // When
+        checker.refresh();
+        var actual = underTest.readiness();
+
+        // Then
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(actual.getBody()).isEqualTo(new ProbeController.ProbeResponse("DOWN"));
+        assertThat(checker.snapshot().dependencies().get("database").up()).isFalse();
+        assertThat(underTest.liveness().getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void objectStoreOutageKeepsTheInstanceReady() {
+        // Given
+        objectStoreUp = false;
+
+        // When
+        checker.refresh();
+        var actual = underTest.readiness();
+
+        // Then
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(checker.snapshot().dependencies().get("objectStore").up()).isFalse();
+        assertThat(checker.snapshot().dependencies().get("database").up()).isTrue();
+    }
+
+    @Test
+    void hangingCheckTimesOutWithoutStallingTheRound() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger hangingCalls = new AtomicInteger();
+        Map<String, DependencyCheck> checks = new LinkedHashMap<>();
+        checks.put("database", () -> "ok");
+        checks.put("objectStore", () -> {
+            hangingCalls.incrementAndGet();
+            release.await();
+            return "ok";
+        });
+        DependencyHealthChecker hanging = new DependencyHealthChecker(checks, Duration.ofMillis(50), now::get);
+
+        try {
+            // When
+            hanging.refresh();
+            hanging.refresh();
+
+            // Then
+            assertThat(hanging.snapshot().dependencies().get("database").up()).isTrue();
+            assertThat(hanging.snapshot().dependencies().get("objectStore").up()).isFalse();
+            assertThat(hangingCalls).hasValue(1);
+
+            release.countDown();
+            hanging.refresh();
+            assertThat(hanging.snapshot().allUp()).isTrue();
+        } finally {
+            release.countDown();
+            hanging.destroy();
+        }
+    }
+
+    @Test
+    void staleSnapshotFailsReadinessFirstThenLiveness() {
+        // Given
+        checker.refresh();
+
+        // When
+        now.addAndGet(Duration.ofMinutes(1).toNanos());
+
+        // Then
+        assertThat(underTest.readiness().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(underTest.liveness().getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        now.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertThat(underTest.liveness().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    void pingCountsEveryRequest() {
+        underTest.getPingPong();
+        assertThat(underTest.getPingPong().result()).isEqualTo("Pong: 2");
+    }
+}
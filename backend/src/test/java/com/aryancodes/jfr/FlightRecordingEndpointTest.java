@@ -0,0 +1,102 @@
+package com.aryancodes.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlightRecordingEndpointTest {
+
+    private FlightRecordingEndpoint underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new FlightRecordingEndpoint(Duration.ofMinutes(30), DataSize.ofMegabytes(200));
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+    }
+
+    @Test
+    void downloadIsNotFoundWithoutRecording() {
+        // When
+        WebEndpointResponse<Resource> actual = underTest.download();
+
+        // Then
+        assertThat(actual.getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    @Test
+    void recordsApplicationEventsWhileRunning() throws IOException {
+        // Given
+        assertThat(underTest.start(60L, 10L)).containsEntry("state", "RUNNING");
+
+        // When
+        S3TransferEvent event = new S3TransferEvent();
+        event.begin();
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = "get";
+            event.bucket = "customer";
+            event.keyPrefix = S3TransferEvent.keyPrefix("profile-images/1/abc");
+            event.bytes = 42;
+            event.commit();
+        }
+        assertThat(underTest.stop()).containsEntry("state", "STOPPED");
+        WebEndpointResponse<Resource> actual = underTest.download();
+
+        // Then
+        assertThat(actual.getStatus()).isEqualTo(WebEndpointResponse.STATUS_OK);
+        Path dump = actual.getBody().getFile().toPath();
+        Path copy = Files.createTempFile("downloaded-", ".jfr");
+        try (InputStream in = actual.getBody().getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        assertThat(dump).doesNotExist();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(copy);
+        Files.delete(copy);
+        assertThat(events)
+                .noneMatch(e -> e.getEventType().getName().equals("jdk.InitialEnvironmentVariable"));
+        assertThat(events)
+                .filteredOn(e -> e.getEventType().getName().equals("com.aryancodes.S3Transfer"))
+                .singleElement()
+                .satisfies(e -> {
+                    assertThat(e.getString("keyPrefix")).isEqualTo("profile-images/1");
+                    assertThat(e.getLong("bytes")).isEqualTo(42);
+                });
+    }
+
+    @Test
+    void requestedLimitsAreClampedToTheConfiguredMaximums() {
+        // When
+        var actual = underTest.start(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        // Then
+        assertThat(actual)
+                .containsEntry("maxAgeSeconds", Duration.ofMinutes(30).toSeconds())
+                .containsEntry("maxSizeBytes", DataSize.ofMegabytes(200).toBytes());
+    }
+
+    @Test
+    void keyPrefixKeepsFirstTwoSegments() {
+        assertThat(S3TransferEvent.keyPrefix("profile-images/1/abc")).isEqualTo("profile-images/1");
+        assertThat(S3TransferEvent.keyPrefix("foo/bar")).isEqualTo("foo/bar");
+        assertThat(S3TransferEvent.keyPrefix("foo")).isEqualTo("foo");
+    }
+}
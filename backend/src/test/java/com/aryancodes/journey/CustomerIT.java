@@ -389,4 +389,108 @@ public class CustomerIT extends AbstractTestcontainers {
         assertThat(actual).isEqualTo(downloadedImage);
 
     }
+
+    @Test
+    void getCustomerAnswersNotModifiedUntilTheCustomerChanges() {
+        // register a customer
+        String email = FAKER.name().lastName() + "-" + UUID.randomUUID() + "@aryancodes.com";
+        CustomerRegistrationRequest request = new CustomerRegistrationRequest(
+                FAKER.name().fullName(), email, "password", 30, Gender.FEMALE
+        );
+        String jwtToken = webTestClient.post()
+                .uri(CUSTOMER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Mono.just(request), CustomerRegistrationRequest.class)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .get(AUTHORIZATION)
+                .get(0);
+        String bearer = String.format("Bearer %s", jwtToken);
+
+        // the list and the customer both carry an etag
+        String listETag = webTestClient.get()
+                .uri(CUSTOMER_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getETag();
+        List<CustomerDTO> allCustomers = webTestClient.get()
+                .uri(CUSTOMER_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .exchange()
+                .expectBodyList(CustomerDTO.class)
+                .returnResult()
+                .getResponseBody();
+        long id = allCustomers.stream()
+                .filter(customer -> customer.email().equals(email))
+                .map(CustomerDTO::id)
+                .findFirst()
+                .orElseThrow();
+        String customerETag = webTestClient.get()
+                .uri(CUSTOMER_PATH + "/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getETag();
+        assertThat(listETag).isNotNull();
+        assertThat(customerETag).isNotNull();
+
+        // unchanged: 304
+        webTestClient.get()
+                .uri(CUSTOMER_PATH + "/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .ifNoneMatch(customerETag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+        webTestClient.get()
+                .uri(CUSTOMER_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .ifNoneMatch(listETag)
+                .exchange()
+                .expectStatus()
+                .isNotModified();
+
+        // update the customer
+        webTestClient.put()
+                .uri(CUSTOMER_PATH + "/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .body(Mono.just(new CustomerUpdateRequest("Renamed", null, null)), CustomerUpdateRequest.class)
+                .exchange()
+                .expectStatus()
+                .isOk();
+
+        // changed: full responses again
+        webTestClient.get()
+                .uri(CUSTOMER_PATH + "/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .ifNoneMatch(customerETag)
+                .exchange()
+                .expectStatus()
+                .isOk();
+        webTestClient.get()
+                .uri(CUSTOMER_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .header(AUTHORIZATION, bearer)
+                .ifNoneMatch(listETag)
+                .exchange()
+                .expectStatus()
+                .isOk();
+    }
 }
@@ -0,0 +1,81 @@
+package com.aryancodes.json;
+
+import com.aryancodes.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiErrorWriterTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T10:15:30.123456789Z");
+    private static final LocalDateTime NOW_MILLIS = LocalDateTime.parse("2024-03-01T10:15:30.123");
+
+    private final ApiErrorWriter underTest = new ApiErrorWriter(Clock.fixed(NOW, ZoneOffset.UTC));
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .serializers(new ApiErrorJsonSerializer())
+            .build();
+
+    @Test
+    void encodesTheSameBytesAsTheSerializer() throws Exception {
+        assertSameAsSerializer("/api/v1/customers/7", "customer with id [7] not found", HttpStatus.NOT_FOUND);
+        assertSameAsSerializer("/api/v1/customers", null, HttpStatus.INTERNAL_SERVER_ERROR);
+        assertSameAsSerializer("/api/v1/auth/login", "bad \"quoted\"\tcrédentials 🔑\\",
+                HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void writesJsonStraightToTheResponse() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        ResponseEntity<ApiError> actual = underTest.write(
+                request, response, HttpStatus.NOT_FOUND, "customer with id [7] not found");
+
+        // Then
+        assertThat(actual).isNull();
+        assertThat(response.getStatus()).isEqualTo(404);
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+        assertThat(objectMapper.readValue(response.getContentAsByteArray(), ApiError.class))
+                .isEqualTo(new ApiError("/api/v1/customers/7", "customer with id [7] not found", 404, NOW_MILLIS));
+    }
+
+    @Test
+    void leavesBinaryFormatsToTheConverters() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/7");
+        request.addHeader("Accept", "application/cbor");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        ResponseEntity<ApiError> actual = underTest.write(
+                request, response, HttpStatus.NOT_FOUND, "customer with id [7] not found");
+
+        // Then
+        assertThat(actual.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(actual.getBody().path()).isEqualTo("/api/v1/customers/7");
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private void assertSameAsSerializer(String path, String message, HttpStatus status) throws Exception {
+        String expected = objectMapper.writeValueAsString(new ApiError(path, message, status.value(), NOW_MILLIS));
+        assertThat(new String(underTest.encode(path, message, status), StandardCharsets.UTF_8))
+                .isEqualTo(expected);
+    }
+}
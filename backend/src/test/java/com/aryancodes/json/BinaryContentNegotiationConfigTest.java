@@ -0,0 +1,165 @@
+package com.aryancodes.json;
+
+import com.aryancodes.customer.CustomerDTO;
+import com.aryancodes.customer.CustomerFields;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs against Boot's own MVC and Jackson auto-configuration, so the
+ * converters under test sit among the defaults Spring MVC registers.
+ */
+@SpringBootTest(classes = {
+        BinaryContentNegotiationConfig.class,
+        CustomerDTOJsonSerializer.class,
+        BinaryContentNegotiationConfigTest.CustomersController.class
+})
+@ImportAutoConfiguration({
+        JacksonAutoConfiguration.class,
+        HttpMessageConvertersAutoConfiguration.class,
+        DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class
+})
+@AutoConfigureMockMvc(addFilters = false)
+class BinaryContentNegotiationConfigTest {
+
+    private static final List<CustomerDTO> CUSTOMERS = List.of(
+            new CustomerDTO(1L, "Alex", "alex@gmail.com", Gender.MALE, 19, null),
+            new CustomerDTO(2L, "Jamila", "jamila@gmail.com", Gender.FEMALE, 25, "image-2")
+    );
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void replacesTheDefaultBinaryConvertersAfterJson() {
+        // When
+        List<HttpMessageConverter<?>> converters = handlerAdapter.getMessageConverters();
+
+        // Then
+        assertThat(converters).filteredOn(MappingJackson2CborHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(converters).filteredOn(MappingJackson2SmileHttpMessageConverter.class::isInstance).hasSize(1);
+        assertThat(indexOf(converters, MappingJackson2HttpMessageConverter.class))
+                .isLessThan(indexOf(converters, MappingJackson2CborHttpMessageConverter.class))
+                .isLessThan(indexOf(converters, MappingJackson2SmileHttpMessageConverter.class));
+    }
+
+    @Test
+    void wildcardAcceptStaysJson() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/customers")
+                        .header("Accept", "text/html,application/xhtml+xml,*/*;q=0.8"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getContentType()).isEqualTo("application/json");
+        assertThat(decode(new JsonFactory(), result)).isEqualTo(CUSTOMERS);
+    }
+
+    @Test
+    void cborWhenAsked() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/customers").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getContentType()).isEqualTo("application/cbor");
+        assertThat(decode(new CBORFactory(), result)).isEqualTo(CUSTOMERS);
+    }
+
+    @Test
+    void smileWhenAsked() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/customers").header("Accept", "application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Then
+        assertThat(result.getResponse().getContentType()).isEqualTo("application/x-jackson-smile");
+        assertThat(decode(new SmileFactory(), result)).isEqualTo(CUSTOMERS);
+    }
+
+    @Test
+    void binaryResponsesHonourFields() throws Exception {
+        // the default record binding ignores ?fields=, only CustomerDTOJsonSerializer applies it
+        for (Map.Entry<String, JsonFactory> format : Map.<String, JsonFactory>of(
+                "application/cbor", new CBORFactory(),
+                "application/x-jackson-smile", new SmileFactory()).entrySet()) {
+            // When
+            MvcResult result = mockMvc.perform(get("/customers")
+                            .param("fields", "id,name")
+                            .header("Accept", format.getKey()))
+                    .andExpect(status().isOk())
+                    .andReturn();
+
+            // Then
+            List<Map<String, Object>> customers = new ObjectMapper(format.getValue()).readValue(
+                    result.getResponse().getContentAsByteArray(),
+                    new TypeReference<>() {
+                    });
+            assertThat(customers).allSatisfy(customer ->
+                    assertThat(customer).containsOnlyKeys("id", "name"));
+        }
+    }
+
+    private static int indexOf(List<HttpMessageConverter<?>> converters, Class<?> type) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (type.isInstance(converters.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<CustomerDTO> decode(JsonFactory factory, MvcResult result) throws Exception {
+        return new ObjectMapper(factory).readValue(
+                result.getResponse().getContentAsByteArray(),
+                new TypeReference<>() {
+                });
+    }
+
+    @RestController
+    static class CustomersController {
+
+        @GetMapping("/customers")
+        MappingJacksonValue customers(@RequestParam(value = "fields", required = false) String fields) {
+            return CustomerFieldsFilter.apply(CUSTOMERS, CustomerFields.parse(fields));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.aryancodes.json;
+
+import com.aryancodes.customer.CustomerDTO;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the list endpoint's payload with reflective record binding and
+ * with {@link CustomerDTOJsonSerializer}, both through the same
+ * Boot-configured mapper setup, into a discarding stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerDTOSerializationBenchmark {
+
+    private static final TypeReference<List<CustomerDTO>> LIST = new TypeReference<>() {
+    };
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private List<CustomerDTO> customers;
+    private ObjectWriter reflective;
+    private ObjectWriter streaming;
+
+    @Setup
+    public void setUp() {
+        customers = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            customers.add(new CustomerDTO(
+                    i,
+                    "Customer " + i,
+                    "customer-" + i + "@aryancodes.com",
+                    i % 2 == 0 ? Gender.MALE : Gender.FEMALE,
+                    (int) (18 + i % 70),
+                    i % 3 == 0 ? null : UUID.randomUUID().toString()));
+        }
+        reflective = builder().build().writerFor(LIST);
+        streaming = builder().serializers(new CustomerDTOJsonSerializer()).build().writerFor(LIST);
+    }
+
+    @Benchmark
+    public void reflective() throws IOException {
+        reflective.writeValue(OutputStream.nullOutputStream(), customers);
+    }
+
+    @Benchmark
+    public void streaming() throws IOException {
+        streaming.writeValue(OutputStream.nullOutputStream(), customers);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CustomerDTOSerializationBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.aryancodes.json;
+
+import com.aryancodes.customer.CustomerDTO;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What a service-to-service client pays to decode a large customer list in
+ * each format the API negotiates. The encoded size of every payload is
+ * printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerListEncodingBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"1000", "100000"})
+    int size;
+
+    private byte[] payload;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<CustomerDTO> customers = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            customers.add(new CustomerDTO(
+                    i,
+                    "Customer " + i,
+                    "customer-" + i + "@aryancodes.com",
+                    i % 2 == 0 ? Gender.MALE : Gender.FEMALE,
+                    (int) (18 + i % 70),
+                    i % 3 == 0 ? null : UUID.randomUUID().toString()));
+        }
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        var mapper = Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .serializers(new CustomerDTOJsonSerializer())
+                .build();
+        payload = mapper.writeValueAsBytes(customers);
+        reader = mapper.readerFor(new TypeReference<List<CustomerDTO>>() {
+        });
+        System.out.printf("%n%s, %d customers: %d bytes%n", format, size, payload.length);
+    }
+
+    @Benchmark
+    public List<CustomerDTO> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CustomerListEncodingBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,32 @@
+package com.aryancodes.json;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JacksonFormatTest {
+
+    @Test
+    void browserAndToolAcceptHeadersAllGetJson() {
+        assertThat(JacksonFormat.negotiate(null)).isEqualTo(JacksonFormat.JSON);
+        assertThat(JacksonFormat.negotiate("*/*")).isEqualTo(JacksonFormat.JSON);
+        assertThat(JacksonFormat.negotiate("application/json")).isEqualTo(JacksonFormat.JSON);
+        assertThat(JacksonFormat.negotiate("application/json, text/plain, */*")).isEqualTo(JacksonFormat.JSON);
+        assertThat(JacksonFormat.negotiate("text/html,application/xhtml+xml,*/*;q=0.8"))
+                .isEqualTo(JacksonFormat.JSON);
+    }
+
+    @Test
+    void binaryFormatsWhenAskedFor() {
+        assertThat(JacksonFormat.negotiate("application/cbor")).isEqualTo(JacksonFormat.CBOR);
+        assertThat(JacksonFormat.negotiate("application/x-jackson-smile, */*;q=0.1"))
+                .isEqualTo(JacksonFormat.SMILE);
+        assertThat(JacksonFormat.negotiate("application/json;q=0.5, application/cbor"))
+                .isEqualTo(JacksonFormat.CBOR);
+    }
+
+    @Test
+    void unparseableAcceptFallsBackToJson() {
+        assertThat(JacksonFormat.negotiate("not a media type")).isEqualTo(JacksonFormat.JSON);
+    }
+}
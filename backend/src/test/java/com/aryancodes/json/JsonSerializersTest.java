@@ -0,0 +1,99 @@
+package com.aryancodes.json;
+
+import com.aryancodes.auth.AuthenticationResponse;
+import com.aryancodes.customer.CustomerDTO;
+import com.aryancodes.customer.CustomerFields;
+import com.aryancodes.customer.Gender;
+import com.aryancodes.exception.ApiError;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonSerializersTest {
+
+    // what Boot's auto-configured mapper did before the serializers existed
+    private final ObjectMapper reflective = builder().build();
+    private final ObjectMapper underTest = builder()
+            .serializers(
+                    new CustomerDTOJsonSerializer(),
+                    new ApiErrorJsonSerializer(),
+                    new AuthenticationResponseJsonSerializer())
+            .build();
+
+    @Test
+    void customerDTOMatchesReflectiveBinding() throws Exception {
+        // Given
+        List<CustomerDTO> customers = List.of(
+                new CustomerDTO(1L, "Alex \"A\" Smith", "alex@gmail.com", Gender.MALE, 19, "image-1"),
+                new CustomerDTO(2L, "Jamila", "jamila@gmail.com", Gender.FEMALE, 25,
+                        List.of("ROLE_USER", "ROLE_ADMIN"), "jamila@gmail.com", null),
+                new CustomerDTO(null, null, null, null, null, null, null, null)
+        );
+
+        // When
+        String actual = underTest.writeValueAsString(customers);
+
+        // Then
+        assertThat(actual).isEqualTo(reflective.writeValueAsString(customers));
+    }
+
+    @Test
+    void customerDTOWritesOnlyRequestedFields() throws Exception {
+        // Given
+        CustomerDTO customer = new CustomerDTO(1L, "Alex", null, null, null, null, "alex@gmail.com", null);
+        MappingJacksonValue value = CustomerFieldsFilter.apply(
+                List.of(customer), CustomerFields.parse("id,name,username"));
+
+        // When
+        String actual = underTest.writer(value.getFilters()).writeValueAsString(value.getValue());
+
+        // Then
+        assertThat(actual).isEqualTo("[{\"id\":1,\"name\":\"Alex\",\"username\":\"alex@gmail.com\"}]");
+    }
+
+    @Test
+    void apiErrorMatchesReflectiveBinding() throws Exception {
+        // Given
+        List<ApiError> errors = List.of(
+                new ApiError("/api/v1/customers/1", "customer with id [1] not found", 404,
+                        LocalDateTime.of(2024, 3, 1, 10, 0)),
+                new ApiError("/api/v1/customers", "boom", 500,
+                        LocalDateTime.of(2024, 3, 1, 10, 0, 5, 123_456_789)),
+                new ApiError(null, null, 0, null)
+        );
+
+        // When
+        String actual = underTest.writeValueAsString(errors);
+
+        // Then
+        assertThat(actual).isEqualTo(reflective.writeValueAsString(errors));
+    }
+
+    @Test
+    void authenticationResponseMatchesReflectiveBinding() throws Exception {
+        // Given
+        List<AuthenticationResponse> responses = List.of(
+                new AuthenticationResponse("token",
+                        new CustomerDTO(1L, "Alex", "alex@gmail.com", Gender.MALE, 19, null)),
+                new AuthenticationResponse(null, null)
+        );
+
+        // When
+        String actual = underTest.writeValueAsString(responses);
+
+        // Then
+        assertThat(actual).isEqualTo(reflective.writeValueAsString(responses));
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,117 @@
+package com.aryancodes.json;
+
+import com.aryancodes.exception.ApiError;
+import com.aryancodes.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A flood of misses on {@code /api/v1/customers/{id}} from several threads:
+ * the exception is thrown {@code depth} frames below the handler, roughly
+ * where the filter chain and dispatcher put a controller, then rendered.
+ * <ul>
+ *     <li>{@code converter}: an exception that fills in its stack trace, an
+ *     {@link ApiError} rendered through the ObjectMapper, as before.</li>
+ *     <li>{@code preEncoded}: the stackless {@link ResourceNotFoundException}
+ *     rendered by {@link ApiErrorWriter}.</li>
+ * </ul>
+ * Run with {@code -prof gc} to compare allocation per miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class NotFoundFloodBenchmark {
+
+    private static final class StackfulNotFoundException extends RuntimeException {
+        private StackfulNotFoundException(String message) {
+            super(message);
+        }
+    }
+
+    @Param({"60", "150"})
+    int depth;
+
+    private ObjectWriter objectWriter;
+    private ApiErrorWriter apiErrorWriter;
+
+    @Setup
+    public void setUp() {
+        objectWriter = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .serializers(new ApiErrorJsonSerializer())
+                .build()
+                .writerFor(ApiError.class);
+        apiErrorWriter = new ApiErrorWriter();
+    }
+
+    @Benchmark
+    public void converter() throws IOException {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        try {
+            throwAt(depth, id, true);
+        } catch (StackfulNotFoundException e) {
+            ApiError apiError = new ApiError(
+                    "/api/v1/customers/" + id,
+                    e.getMessage(),
+                    HttpStatus.NOT_FOUND.value(),
+                    LocalDateTime.now()
+            );
+            objectWriter.writeValue(OutputStream.nullOutputStream(), apiError);
+        }
+    }
+
+    @Benchmark
+    public void preEncoded() throws IOException {
+        long id = ThreadLocalRandom.current().nextLong(1_000_000);
+        try {
+            throwAt(depth, id, false);
+        } catch (ResourceNotFoundException e) {
+            OutputStream.nullOutputStream().write(
+                    apiErrorWriter.encode("/api/v1/customers/" + id, e.getMessage(), HttpStatus.NOT_FOUND));
+        }
+    }
+
+    private static void throwAt(int depth, long id, boolean stackful) {
+        if (depth > 0) {
+            throwAt(depth - 1, id, stackful);
+            return;
+        }
+        String message = "customer with id [%s] not found".formatted(id);
+        throw stackful ? new StackfulNotFoundException(message) : new ResourceNotFoundException(message);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NotFoundFloodBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()
+        ).run();
+    }
+}
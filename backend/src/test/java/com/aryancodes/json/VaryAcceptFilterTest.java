@@ -0,0 +1,55 @@
+package com.aryancodes.json;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VaryAcceptFilterTest {
+
+    private final VaryAcceptFilter underTest = new VaryAcceptFilter();
+
+    @Test
+    void apiResponsesVaryOnAccept() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        underTest.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void keptOnNotModifiedResponses() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        underTest.doFilter(request, response, (req, res) ->
+                ((MockHttpServletResponse) res).setStatus(304));
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeaders(HttpHeaders.VARY)).containsExactly(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void probesAreLeftAlone() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/health/ready");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        underTest.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        assertThat(response.getHeaders(HttpHeaders.VARY)).isEmpty();
+    }
+}
@@ -0,0 +1,99 @@
+package com.aryancodes.metrics;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerDao;
+import com.aryancodes.customer.Gender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDaoInstrumentationTest {
+
+    @Mock
+    private CustomerDao customerDao;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomerDao underTest;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        underTest = CustomerDaoInstrumentation.instrument(customerDao, "jdbc", meterRegistry);
+    }
+
+    @Test
+    void recordsTimerAndRowCountForEachCall() {
+        // Given
+        List<Customer> customers = List.of(
+                new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE),
+                new Customer(2L, "Jamila", "jamila@gmail.com", "password", 25, Gender.FEMALE)
+        );
+        when(customerDao.selectAllCustomers()).thenReturn(customers);
+
+        // When
+        List<Customer> actual = underTest.selectAllCustomers();
+
+        // Then
+        assertThat(actual).isEqualTo(customers);
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.DURATION)
+                .tags("implementation", "jdbc", "method", "selectAllCustomers")
+                .timer()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.ROWS)
+                .tags("implementation", "jdbc", "method", "selectAllCustomers")
+                .summary()
+                .totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void countsOptionalResultsAsZeroOrOneRow() {
+        // Given
+        when(customerDao.selectCustomerById(1L)).thenReturn(Optional.empty());
+
+        // When
+        underTest.selectCustomerById(1L);
+
+        // Then
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.ROWS)
+                .tags("method", "selectCustomerById")
+                .summary()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.ROWS)
+                .tags("method", "selectCustomerById")
+                .summary()
+                .totalAmount()).isZero();
+    }
+
+    @Test
+    void countsErrorsAndRethrowsOriginalException() {
+        // Given
+        when(customerDao.existsCustomerById(1L)).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        assertThatThrownBy(() -> underTest.existsCustomerById(1L))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("boom");
+
+        // Then
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.ERRORS)
+                .tags("implementation", "jdbc",
+                        "method", "existsCustomerById",
+                        "exception", "IllegalStateException")
+                .counter()
+                .count()).isEqualTo(1);
+        assertThat(meterRegistry.get(CustomerDaoInstrumentation.DURATION)
+                .tags("method", "existsCustomerById")
+                .timer()
+                .count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,63 @@
+package com.aryancodes.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestTimingsTest {
+
+    @Test
+    void enterIsNoOpOutsideOfRequest() {
+        // When
+        RequestPhase previous = RequestTimings.enter(RequestPhase.DAO);
+
+        // Then
+        assertThat(previous).isNull();
+        RequestTimings.exit(previous);
+    }
+
+    @Test
+    void nestedPhasesAreChargedExclusively() throws InterruptedException {
+        // Given
+        RequestTimings timings = RequestTimings.begin();
+
+        // When
+        RequestPhase outer = RequestTimings.enter(RequestPhase.USER_DETAILS);
+        Thread.sleep(5);
+        RequestPhase inner = RequestTimings.enter(RequestPhase.DAO);
+        Thread.sleep(20);
+        RequestTimings.exit(inner);
+        RequestTimings.exit(outer);
+        long total = timings.finish();
+
+        // Then
+        assertThat(outer).isEqualTo(RequestPhase.OTHER);
+        assertThat(inner).isEqualTo(RequestPhase.USER_DETAILS);
+        assertThat(timings.calls(RequestPhase.DAO)).isEqualTo(1);
+        assertThat(timings.calls(RequestPhase.USER_DETAILS)).isEqualTo(1);
+        assertThat(timings.nanos(RequestPhase.DAO)).isGreaterThanOrEqualTo(20_000_000L);
+        assertThat(timings.nanos(RequestPhase.USER_DETAILS))
+                .isGreaterThanOrEqualTo(5_000_000L)
+                .isLessThan(timings.nanos(RequestPhase.DAO));
+
+        long sum = 0;
+        for (RequestPhase phase : RequestPhase.values()) {
+            sum += timings.nanos(phase);
+        }
+        assertThat(sum).isEqualTo(total);
+    }
+
+    @Test
+    void finishedContextIgnoresFurtherPhases() {
+        // Given
+        RequestTimings timings = RequestTimings.begin();
+        timings.finish();
+
+        // When
+        RequestPhase previous = RequestTimings.enter(RequestPhase.S3);
+
+        // Then
+        assertThat(previous).isNull();
+        assertThat(timings.calls(RequestPhase.S3)).isZero();
+    }
+}
@@ -0,0 +1,75 @@
+package com.aryancodes.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlStatementStatisticsTest {
+
+    private static final String SELECT = """
+            SELECT id, name
+            FROM customer
+            """;
+    private static final String UPDATE = "UPDATE customer SET name = ? WHERE id = ?";
+
+    private SqlStatementStatistics underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new SqlStatementStatistics();
+    }
+
+    @Test
+    void aggregatesCallsAndRowsPerStatement() {
+        // When
+        underTest.query(SELECT, () -> List.of(1, 2, 3));
+        underTest.query(SELECT, () -> List.of(4));
+        underTest.update(UPDATE, () -> 1);
+
+        // Then
+        List<SqlStatementStatistics.StatementSnapshot> snapshot = underTest.snapshot();
+        assertThat(snapshot).hasSize(2);
+        assertThat(snapshot)
+                .filteredOn(s -> s.sql().equals("SELECT id, name FROM customer"))
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.calls()).isEqualTo(2);
+                    assertThat(s.rows()).isEqualTo(4);
+                    assertThat(s.errors()).isZero();
+                    assertThat(s.maxMs()).isLessThanOrEqualTo(s.totalMs());
+                });
+    }
+
+    @Test
+    void countsErrorsAndRethrows() {
+        // When
+        assertThatThrownBy(() -> underTest.update(UPDATE, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(underTest.snapshot())
+                .singleElement()
+                .satisfies(s -> {
+                    assertThat(s.calls()).isEqualTo(1);
+                    assertThat(s.errors()).isEqualTo(1);
+                    assertThat(s.rows()).isZero();
+                });
+    }
+
+    @Test
+    void resetClearsAllStatements() {
+        // Given
+        underTest.queryForObject(SELECT, () -> 1);
+
+        // When
+        underTest.reset();
+
+        // Then
+        assertThat(underTest.snapshot()).isEmpty();
+    }
+}
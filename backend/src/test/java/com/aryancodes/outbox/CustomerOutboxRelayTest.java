@@ -0,0 +1,147 @@
+package com.aryancodes.outbox;
+
+import com.aryancodes.AbstractTestcontainers;
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.Gender;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the outbox is written atomically with the change, and that the
+ * relay holds no transaction or row lock while delivering.
+ */
+class CustomerOutboxRelayTest extends AbstractTestcontainers {
+
+    private final JdbcTemplate jdbcTemplate = getJdbcTemplate();
+    private final DataSourceTransactionManager transactionManager =
+            new DataSourceTransactionManager(jdbcTemplate.getDataSource());
+    private CustomerOutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM customer_outbox");
+        writer = new CustomerOutboxWriter(jdbcTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoOutboxRow() {
+        // Given
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        // When
+        transaction.executeWithoutResult(status -> {
+            writer.onCustomerChanged(CustomerChangedEvent.inserted(customer(1L)));
+            status.setRollbackOnly();
+        });
+        transaction.executeWithoutResult(status ->
+                writer.onCustomerChanged(CustomerChangedEvent.inserted(customer(2L))));
+
+        // Then
+        assertThat(jdbcTemplate.queryForList("SELECT customer_id FROM customer_outbox", Long.class))
+                .containsExactly(2L);
+    }
+
+    @Test
+    void deliversWithoutHoldingRowLocks() {
+        // Given
+        writer.onCustomerChanged(CustomerChangedEvent.inserted(customer(1L)));
+        List<Boolean> inTransaction = new ArrayList<>();
+        List<Long> lockable = new ArrayList<>();
+        CustomerOutboxRelay relay = relay(event -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            // would fail with a lock-not-available error if the claim still held the row
+            lockable.addAll(new TransactionTemplate(transactionManager).execute(status ->
+                    jdbcTemplate.queryForList(
+                            "SELECT id FROM customer_outbox WHERE id = ? FOR UPDATE NOWAIT",
+                            Long.class, event.id())));
+        });
+
+        // When
+        int actual = relay.relayBatch();
+
+        // Then
+        assertThat(actual).isEqualTo(1);
+        assertThat(inTransaction).containsExactly(false);
+        assertThat(lockable).hasSize(1);
+        assertThat(undelivered()).isZero();
+    }
+
+    @Test
+    void failedDeliveryReleasesTheBatch() {
+        // Given
+        writer.onCustomerChanged(CustomerChangedEvent.inserted(customer(1L)));
+        CustomerOutboxRelay failing = relay(event -> {
+            throw new IllegalStateException("subscriber down");
+        });
+        List<Long> delivered = new ArrayList<>();
+
+        // When
+        assertThatThrownBy(failing::relayBatch).hasMessage("subscriber down");
+        int actual = relay(event -> delivered.add(event.customerId())).relayBatch();
+
+        // Then
+        assertThat(actual).isEqualTo(1);
+        assertThat(delivered).containsExactly(1L);
+        assertThat(undelivered()).isZero();
+    }
+
+    @Test
+    void pollStopsAfterMaxBatchesPerPoll() {
+        // Given
+        for (long id = 1; id <= 3; id++) {
+            writer.onCustomerChanged(CustomerChangedEvent.inserted(customer(id)));
+        }
+        List<Long> delivered = new ArrayList<>();
+
+        // When
+        relay(event -> delivered.add(event.customerId()), 1, 2).poll();
+
+        // Then
+        assertThat(delivered).containsExactly(1L, 2L);
+        assertThat(undelivered()).isEqualTo(1);
+    }
+
+    private int undelivered() {
+        return jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM customer_outbox WHERE delivered_at IS NULL", Integer.class);
+    }
+
+    private CustomerOutboxRelay relay(OutboxSubscriber subscriber) {
+        return relay(subscriber, 100, 20);
+    }
+
+    private CustomerOutboxRelay relay(OutboxSubscriber subscriber, int batchSize, int maxBatchesPerPoll) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("subscriber", subscriber);
+        beanFactory.addBean("sink", new LoggingOutboxSink());
+        return new CustomerOutboxRelay(
+                jdbcTemplate,
+                beanFactory.getBeanProvider(OutboxSubscriber.class),
+                beanFactory.getBeanProvider(OutboxSink.class),
+                new SimpleMeterRegistry(),
+                batchSize,
+                maxBatchesPerPoll,
+                Duration.ofMinutes(1),
+                Duration.ofHours(1)
+        );
+    }
+
+    static Customer customer(Long id) {
+        return new Customer(id, "Alex", "alex-" + id + "@aryancodes.com", "password", 20, Gender.MALE);
+    }
+}
@@ -0,0 +1,87 @@
+package com.aryancodes.outbox;
+
+import com.aryancodes.AbstractTestcontainers;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * How many events per second one relay drains at different batch sizes.
+ * A measurement rather than a check, so it runs with the integration tests,
+ * not {@code mvn test}.
+ */
+class CustomerOutboxRelayThroughputIT extends AbstractTestcontainers {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerOutboxRelayThroughputIT.class);
+
+    private static final int EVENTS = 20_000;
+
+    private final JdbcTemplate jdbcTemplate = getJdbcTemplate();
+    private final AtomicLong delivered = new AtomicLong();
+    private CustomerOutboxWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM customer_outbox");
+        writer = new CustomerOutboxWriter(jdbcTemplate, new ObjectMapper());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 500, 1000})
+    void relayThroughput(int batchSize) {
+        // Given
+        new TransactionTemplate(new DataSourceTransactionManager(jdbcTemplate.getDataSource()))
+                .executeWithoutResult(status -> {
+                    for (long id = 1; id <= EVENTS; id++) {
+                        writer.onCustomerChanged(CustomerChangedEvent.inserted(CustomerOutboxRelayTest.customer(id)));
+                    }
+                });
+        CustomerOutboxRelay relay = relay(batchSize);
+
+        // When
+        long start = System.nanoTime();
+        int relayed = 0;
+        int batch;
+        do {
+            batch = relay.relayBatch();
+            relayed += batch;
+        } while (batch > 0);
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(relayed).isEqualTo(EVENTS);
+        assertThat(delivered.get()).isEqualTo(EVENTS);
+        log.info("outbox relay batch-size={}: {} events in {} ms ({} events/s)",
+                batchSize, EVENTS, elapsed.toMillis(), Math.round(EVENTS / (elapsed.toNanos() / 1e9)));
+    }
+
+    private CustomerOutboxRelay relay(int batchSize) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("counter", (OutboxSubscriber) event -> delivered.incrementAndGet());
+        beanFactory.addBean("sink", new LoggingOutboxSink());
+        return new CustomerOutboxRelay(
+                jdbcTemplate,
+                beanFactory.getBeanProvider(OutboxSubscriber.class),
+                beanFactory.getBeanProvider(OutboxSink.class),
+                new SimpleMeterRegistry(),
+                batchSize,
+                20,
+                Duration.ofMinutes(1),
+                Duration.ofHours(1)
+        );
+    }
+}
@@ -0,0 +1,179 @@
+package com.aryancodes.s3;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedReadsTest {
+
+    private static final Duration MIN_DELAY = Duration.ofMillis(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HedgedReads underTest;
+
+    @AfterEach
+    void tearDown() {
+        if (underTest != null) {
+            underTest.destroy();
+        }
+    }
+
+    @Test
+    void percentileTracksRecentLatencies() {
+        // Given
+        LatencyPercentile p90 = new LatencyPercentile(0.9, 100);
+
+        // When
+        for (int i = 1; i <= 1024; i++) {
+            p90.record(i);
+        }
+
+        // Then
+        assertThat(p90.nanos()).isEqualTo(922);
+    }
+
+    @Test
+    void disabledReadRunsOnTheCallingThread() {
+        // Given
+        underTest = new HedgedReads(meterRegistry, false, 0.95, 100, MIN_DELAY, 10);
+        Thread caller = Thread.currentThread();
+
+        // When
+        boolean actual = underTest.read(() -> Thread.currentThread() == caller);
+
+        // Then
+        assertThat(actual).isTrue();
+        assertThat(count("s3.hedge.reads")).isZero();
+    }
+
+    @Test
+    void doesNotHedgeUntilThereAreEnoughSamples() {
+        // Given
+        underTest = hedging(10);
+
+        // When
+        // Then
+        assertThat(underTest.delayNanos()).isEqualTo(Long.MAX_VALUE);
+        warmUp();
+        assertThat(underTest.delayNanos()).isEqualTo(MIN_DELAY.toNanos());
+    }
+
+    @Test
+    void failedAttemptsDoNotLowerTheDelay() {
+        // Given
+        underTest = hedging(10);
+
+        // When
+        for (int i = 0; i < 2 * LatencyPercentile.RECOMPUTE_EVERY; i++) {
+            assertThatThrownBy(() -> underTest.read(() -> {
+                throw new IllegalStateException("throttled");
+            })).hasMessage("throttled");
+        }
+
+        // Then
+        assertThat(underTest.delayNanos()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void slowReadIsAnsweredByTheHedge() {
+        // Given
+        underTest = hedging(10);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        long start = System.nanoTime();
+        String actual = underTest.read(() -> attempts.incrementAndGet() == 1 ? sleepThen(1000, "primary") : "hedge");
+        long elapsed = System.nanoTime() - start;
+
+        // Then
+        assertThat(actual).isEqualTo("hedge");
+        assertThat(elapsed).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(count("s3.hedge.sent")).isEqualTo(1);
+        assertThat(meterRegistry.get("s3.hedge.wins").tag("attempt", "hedge").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedPrimaryLeavesTheHedgeToAnswer() {
+        // Given
+        underTest = hedging(10);
+        warmUp();
+        AtomicInteger attempts = new AtomicInteger();
+
+        // When
+        String actual = underTest.read(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                sleepThen(50, null);
+                throw new IllegalStateException("primary failed");
+            }
+            return sleepThen(100, "hedge");
+        });
+
+        // Then
+        assertThat(actual).isEqualTo("hedge");
+    }
+
+    @Test
+    void readFailsWhenBothAttemptsFail() {
+        // Given
+        underTest = hedging(10);
+        warmUp();
+
+        // When
+        // Then
+        assertThatThrownBy(() -> underTest.read(() -> {
+            sleepThen(50, null);
+            throw new IllegalStateException("store down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("store down");
+    }
+
+    @Test
+    void budgetCapsHedgesAtTheConfiguredShareOfReads() {
+        // Given
+        underTest = hedging(10);
+        warmUp();
+        Supplier<String> slow = () -> sleepThen(30, "slow");
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            underTest.read(slow);
+        }
+
+        // Then
+        // ten hedges banked, then one more from the 10% each of the first eleven reads earned
+        assertThat(count("s3.hedge.sent")).isEqualTo(11);
+        assertThat(count("s3.hedge.budget.exhausted")).isEqualTo(9);
+        assertThat(count("s3.hedge.reads")).isEqualTo(2 * LatencyPercentile.RECOMPUTE_EVERY + 20);
+    }
+
+    private HedgedReads hedging(int budgetPercent) {
+        return new HedgedReads(meterRegistry, true, 0.95, 100, MIN_DELAY, budgetPercent);
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < 2 * LatencyPercentile.RECOMPUTE_EVERY; i++) {
+            underTest.read(() -> "fast");
+        }
+    }
+
+    private double count(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static <T> T sleepThen(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
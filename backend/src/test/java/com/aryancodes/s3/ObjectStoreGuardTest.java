@@ -0,0 +1,146 @@
+package com.aryancodes.s3;
+
+import com.aryancodes.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ObjectStoreGuardTest {
+
+    private static final String BUCKET = "customer";
+    private static final Duration SLOW_CALL = Duration.ofMillis(50);
+    private static final Duration OPEN = Duration.ofMillis(300);
+
+    @TempDir
+    Path root;
+
+    private FakeS3 fakeS3;
+    private SimpleMeterRegistry meterRegistry;
+    private ObjectStoreGuard guard;
+    private S3Service underTest;
+
+    @BeforeEach
+    void setUp() {
+        fakeS3 = new FakeS3(root.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        guard = new ObjectStoreGuard(meterRegistry, 2, Duration.ZERO, 3, SLOW_CALL, OPEN);
+        underTest = new S3Service(fakeS3, guard, new HedgedReads(meterRegistry, false, 0.95, 100, Duration.ofMillis(20), 10), meterRegistry);
+        // straight to the store: a cold first call through the guard could already count as slow
+        fakeS3.putObject(
+                PutObjectRequest.builder().bucket(BUCKET).key("foo").build(),
+                RequestBody.fromBytes("Hello World".getBytes()));
+    }
+
+    @Test
+    void bulkheadCapsConcurrentCallsIntoASlowStore() throws Exception {
+        // Given
+        fakeS3.setLatency(Duration.ofMillis(300));
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        List<Future<byte[]>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return underTest.getObject(BUCKET, "foo");
+            }));
+        }
+        start.countDown();
+        int served = 0;
+        int rejected = 0;
+        for (Future<byte[]> result : results) {
+            try {
+                result.get();
+                served++;
+            } catch (Exception e) {
+                assertThat(e).hasCauseInstanceOf(ServiceUnavailableException.class);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertThat(served).isEqualTo(2);
+        assertThat(rejected).isEqualTo(callers - 2);
+        assertThat(meterRegistry.get("s3.rejections").tag("reason", "bulkhead").counter().count())
+                .isEqualTo(callers - 2);
+    }
+
+    @Test
+    void slowCallsOpenTheCircuitAndAHalfOpenProbeClosesIt() throws Exception {
+        // Given
+        fakeS3.setLatency(SLOW_CALL.multipliedBy(2));
+        for (int i = 0; i < 3; i++) {
+            // slow calls still return their result
+            assertThat(underTest.getObject(BUCKET, "foo")).isEqualTo("Hello World".getBytes());
+        }
+
+        // When
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> underTest.getObject(BUCKET, "foo"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("object store is unavailable");
+        Duration failFast = Duration.ofNanos(System.nanoTime() - start);
+
+        // Then
+        assertThat(guard.state()).isEqualTo(ObjectStoreGuard.State.OPEN);
+        assertThat(failFast).isLessThan(SLOW_CALL);
+        assertThat(gauge("open")).isEqualTo(1);
+
+        fakeS3.setLatency(Duration.ZERO);
+        Thread.sleep(OPEN.toMillis() + 50);
+        assertThat(underTest.getObject(BUCKET, "foo")).isEqualTo("Hello World".getBytes());
+        assertThat(guard.state()).isEqualTo(ObjectStoreGuard.State.CLOSED);
+        assertThat(meterRegistry.get("s3.circuit.transitions").tag("state", "half_open").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failedHalfOpenProbeReopensTheCircuit() throws Exception {
+        // Given
+        fakeS3.setLatency(SLOW_CALL.multipliedBy(2));
+        for (int i = 0; i < 3; i++) {
+            underTest.getObject(BUCKET, "foo");
+        }
+        Thread.sleep(OPEN.toMillis() + 50);
+
+        // When
+        underTest.getObject(BUCKET, "foo");
+
+        // Then
+        assertThat(guard.state()).isEqualTo(ObjectStoreGuard.State.OPEN);
+        assertThat(meterRegistry.get("s3.circuit.transitions").tag("state", "open").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void missingKeysDoNotCountAsFailures() {
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> underTest.getObject(BUCKET, "missing"))
+                    .isInstanceOf(NoSuchKeyException.class);
+        }
+        assertThat(guard.state()).isEqualTo(ObjectStoreGuard.State.CLOSED);
+    }
+
+    private double gauge(String state) {
+        return meterRegistry.get("s3.circuit.state").tag("state", state).gauge().value();
+    }
+}
@@ -2,6 +2,7 @@ package com.aryancodes.s3;
 
 import com.aryancodes.s3.S3Buckets;
 import com.aryancodes.s3.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +18,7 @@ import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -32,7 +34,10 @@ class S3ServiceTest {
 
     @BeforeEach
     void setUp() {
-        underTest = new S3Service(s3Client);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectStoreGuard guard = new ObjectStoreGuard(meterRegistry,
+                10, Duration.ZERO, 5, Duration.ofSeconds(2), Duration.ofSeconds(30));
+        underTest = new S3Service(s3Client, guard, new HedgedReads(meterRegistry, false, 0.95, 100, Duration.ofMillis(20), 10), meterRegistry);
     }
 
     @Test
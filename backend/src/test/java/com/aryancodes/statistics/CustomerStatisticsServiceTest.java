@@ -0,0 +1,127 @@
+package com.aryancodes.statistics;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.CustomerCount;
+import com.aryancodes.customer.CustomerDao;
+import com.aryancodes.customer.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerStatisticsServiceTest {
+
+    private static final String SNAPSHOT_SQL = "SELECT 1";
+
+    @Mock
+    private CustomerDao customerDao;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private CustomerStatisticsService underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new CustomerStatisticsService(customerDao, jdbcTemplate, transactionManager);
+    }
+
+    @Test
+    void countsFollowInsertsUpdatesAndDeletes() {
+        // Given
+        Customer alex = new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        Customer jamila = new Customer(2L, "Jamila", "jamila@gmail.com", "password", 25, Gender.FEMALE);
+        Customer olderAlex = new Customer(1L, "Alex", "alex@gmail.com", "password", 31, Gender.MALE);
+
+        // When
+        underTest.onCustomerChanged(CustomerChangedEvent.inserted(alex));
+        underTest.onCustomerChanged(CustomerChangedEvent.inserted(jamila));
+        underTest.onCustomerChanged(CustomerChangedEvent.updated(alex, olderAlex));
+        underTest.onCustomerChanged(CustomerChangedEvent.deleted(jamila));
+
+        // Then
+        CustomerStatistics actual = underTest.getStatistics();
+        assertThat(actual.total()).isEqualTo(1);
+        assertThat(actual.byGender())
+                .containsEntry(Gender.MALE, 1L)
+                .containsEntry(Gender.FEMALE, 0L);
+        assertThat(actual.ageHistogram().get(1).count()).isZero();
+        assertThat(actual.ageHistogram().get(3))
+                .isEqualTo(new CustomerStatistics.AgeBucket(30, 39, 1));
+        assertThat(actual.reconciledAt()).isNull();
+    }
+
+    @Test
+    void reconcileCorrectsDrift() {
+        // Given
+        underTest.onCustomerChanged(CustomerChangedEvent.inserted(
+                new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE)));
+        when(customerDao.countCustomersByGenderAndAge()).thenReturn(List.of(
+                new CustomerCount(Gender.MALE, 19, 3L),
+                new CustomerCount(Gender.FEMALE, 104, 2L)
+        ));
+
+        // When
+        underTest.reconcile();
+
+        // Then
+        CustomerStatistics actual = underTest.getStatistics();
+        assertThat(actual.total()).isEqualTo(5);
+        assertThat(actual.byGender())
+                .containsEntry(Gender.MALE, 3L)
+                .containsEntry(Gender.FEMALE, 2L);
+        assertThat(actual.ageHistogram().get(1).count()).isEqualTo(3);
+        assertThat(actual.ageHistogram().get(10))
+                .isEqualTo(new CustomerStatistics.AgeBucket(100, null, 2));
+        assertThat(actual.reconciledAt()).isNotNull();
+    }
+
+    @Test
+    void writeCommittingDuringReconcileIsNotCountedTwice() {
+        // Given
+        Customer alex = new Customer(1L, "Alex", "alex@gmail.com", "password", 19, Gender.MALE);
+        when(customerDao.countCustomersByGenderAndAge()).thenReturn(List.of(
+                new CustomerCount(Gender.MALE, 19, 1L)
+        ));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.onCustomerChanged(CustomerChangedEvent.inserted(alex));
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+            // When
+            // the write has committed but its events aren't applied yet
+            CompletableFuture<Void> reconcile = CompletableFuture.runAsync(underTest::reconcile);
+            verify(jdbcTemplate, after(200).never()).queryForObject(eq(SNAPSHOT_SQL), eq(Integer.class));
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+            verify(jdbcTemplate, timeout(1000)).queryForObject(eq(SNAPSHOT_SQL), eq(Integer.class));
+            reconcile.join();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        CustomerStatistics actual = underTest.getStatistics();
+        assertThat(actual.total()).isEqualTo(1);
+        assertThat(actual.byGender()).containsEntry(Gender.MALE, 1L);
+    }
+}
@@ -0,0 +1,93 @@
+package com.aryancodes.typeahead;
+
+import com.aryancodes.customer.Customer;
+import com.aryancodes.customer.CustomerChangedEvent;
+import com.aryancodes.customer.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class TypeaheadIndexTest {
+
+    private TypeaheadIndex underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TypeaheadIndex(
+                mock(DataSource.class),
+                mock(PlatformTransactionManager.class),
+                100,
+                1_000
+        );
+        insert(1L, "Alex Smith", "alex@aryancodes.com");
+        insert(2L, "Alexa Jones", "ajones@aryancodes.com");
+        insert(3L, "Jamila Alexander", "jamila@aryancodes.com");
+        insert(4L, "Bob Marley", "bob@aryancodes.com");
+    }
+
+    @Test
+    void findsCustomersByNameWordAndEmailPrefix() {
+        // When
+        List<TypeaheadSuggestion> actual = underTest.search("Ale", 10);
+
+        // Then
+        assertThat(actual).extracting(TypeaheadSuggestion::id)
+                .containsExactly(1L, 2L, 3L);
+        assertThat(underTest.search("ajo", 10)).extracting(TypeaheadSuggestion::id)
+                .containsExactly(2L);
+        assertThat(underTest.search("alex  smi", 10)).extracting(TypeaheadSuggestion::id)
+                .containsExactly(1L);
+    }
+
+    @Test
+    void returnsOnlyTopK() {
+        // When
+        List<TypeaheadSuggestion> actual = underTest.search("a", 2);
+
+        // Then
+        assertThat(actual).extracting(TypeaheadSuggestion::id)
+                .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void keepsResultsAcrossMergeAndAppliesLaterChanges() {
+        // Given
+        underTest.merge();
+
+        // When
+        underTest.onCustomerChanged(CustomerChangedEvent.updated(
+                customer(1L, "Alex Smith", "alex@aryancodes.com"),
+                customer(1L, "Zed Smith", "zed@aryancodes.com")));
+        underTest.onCustomerChanged(CustomerChangedEvent.deleted(
+                customer(2L, "Alexa Jones", "ajones@aryancodes.com")));
+
+        // Then
+        assertThat(underTest.search("ale", 10)).extracting(TypeaheadSuggestion::id)
+                .containsExactly(3L);
+        assertThat(underTest.search("smi", 10)).extracting(TypeaheadSuggestion::name)
+                .containsExactly("Zed Smith");
+
+        // When
+        underTest.merge();
+
+        // Then
+        assertThat(underTest.search("ale", 10)).extracting(TypeaheadSuggestion::id)
+                .containsExactly(3L);
+        assertThat(underTest.search("b", 10)).extracting(TypeaheadSuggestion::email)
+                .containsExactly("bob@aryancodes.com");
+    }
+
+    private void insert(Long id, String name, String email) {
+        underTest.onCustomerChanged(CustomerChangedEvent.inserted(customer(id, name, email)));
+    }
+
+    private static Customer customer(Long id, String name, String email) {
+        return new Customer(id, name, email, "password", 20, Gender.MALE);
+    }
+}
@@ -0,0 +1,18 @@
+#!/bin/bash
+# Clones db into an empty data directory on first start, then runs as its
+# hot standby. primary_conninfo is written by pg_basebackup -R.
+set -e
+
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+    mkdir -p "$PGDATA"
+    chown postgres:postgres "$PGDATA"
+    chmod 0700 "$PGDATA"
+    until gosu postgres pg_basebackup --host=db --username=replicator --pgdata="$PGDATA" \
+            --write-recovery-conf --wal-method=stream; do
+        echo "waiting for db to accept replication connections"
+        rm -rf "${PGDATA:?}"/*
+        sleep 2
+    done
+fi
+
+exec gosu postgres postgres